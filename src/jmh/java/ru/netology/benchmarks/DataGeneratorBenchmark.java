@@ -0,0 +1,73 @@
+package ru.netology.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.netology.data.DataGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataGeneratorBenchmark {
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithApprovedCard() {
+        return DataGenerator.generateDataWithApprovedCard();
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithDeclineCard() {
+        return DataGenerator.generateDataWithDeclineCard();
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithRandomCardNumber() {
+        return DataGenerator.generateDataWithRandomCardNumber();
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithApprovedCardAndParametrizedMonthAndYear() {
+        return DataGenerator.generateDataWithApprovedCardAndParametrizedMonthAndYear("05", "30");
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithParametrizedLengthCardHolderName() {
+        return DataGenerator.generateDataWithParametrizedLengthCardHolderName(64);
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithParametrizedCardHolderName() {
+        return DataGenerator.generateDataWithParametrizedCardHolderName("IVAN PETROV");
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithAnExpiredCardForOneMonth() {
+        return DataGenerator.generateDataWithAnExpiredCardForOneMonth();
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo generateDataWithMaxDateMinusOneMonth() {
+        return DataGenerator.generateDataWithMaxDateMinusOneMonth();
+    }
+
+    @Benchmark
+    public String getCurrentMonth() {
+        return DataGenerator.getCurrentMonth();
+    }
+
+    @Benchmark
+    public String getCurrentYear() {
+        return DataGenerator.getCurrentYear();
+    }
+}
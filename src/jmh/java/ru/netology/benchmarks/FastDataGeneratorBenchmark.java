@@ -0,0 +1,51 @@
+package ru.netology.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.FastDataGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FastDataGeneratorBenchmark {
+
+    private FastDataGenerator generator;
+    private long index;
+
+    @Setup
+    public void setUp() {
+        generator = new FastDataGenerator(42);
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo approvedCard() {
+        return generator.approvedCard(index++);
+    }
+
+    @Benchmark
+    public DataGenerator.CardInfo randomCard() {
+        return generator.randomCard(index++);
+    }
+
+    @Benchmark
+    public long parallelStreamOfMillion() {
+        // count() on the sized stream would skip mapToObj, so every card feeds the reduction instead
+        return generator.stream(1_000_000).parallel()
+                .mapToLong(card -> card.getNumber().hashCode() ^ card.getHolder().hashCode())
+                .sum();
+    }
+}
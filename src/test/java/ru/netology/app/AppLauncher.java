@@ -0,0 +1,200 @@
+package ru.netology.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import ru.netology.data.ApiClient;
+import ru.netology.data.EmbeddedDatabase;
+import ru.netology.data.FastDataGenerator;
+import ru.netology.perf.AppProfiler;
+import ru.netology.perf.Reports;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class AppLauncher implements AutoCloseable {
+
+    private static final int HISTORY_LIMIT = 50;
+
+    private final Path jar = Path.of(System.getProperty("app.jar", "artifacts/aqa-shop.jar"));
+    private final Path properties = Path.of(System.getProperty("app.properties", "application.properties"));
+    private final Path log = Path.of(System.getProperty("app.log", "build/app/aqa-shop.log"));
+    private final int port = Integer.getInteger("app.port", 8080);
+    private final Duration startTimeout = Duration.ofSeconds(Long.getLong("app.startTimeout", 120));
+    private final long pollIntervalMillis = Long.getLong("app.pollInterval", 25);
+    private final String recording = System.getProperty("app.jfr");
+
+    private Properties settings;
+    private Process process;
+
+    public static void main(String[] args) throws InterruptedException {
+        var launcher = new AppLauncher().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(launcher::close, "aqa-shop-shutdown"));
+        launcher.process.waitFor();
+    }
+
+    @SneakyThrows
+    public AppLauncher start() {
+        settings = resolveSettings();
+        ensurePortFree();
+        // tests and the shared API client look for the application here
+        System.setProperty("api.baseUri", getBaseUri());
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        var started = System.nanoTime();
+        process = new ProcessBuilder(command())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        var startupMillis = awaitFirstPayment(started);
+        recordStartup(startupMillis);
+        System.out.printf("aqa-shop (%s) answered /api/v1/pay %.1f ms after launch%n", backend(), startupMillis);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException exception) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public String getBaseUri() {
+        return "http://localhost:" + port;
+    }
+
+    private void ensurePortFree() {
+        // otherwise the readiness probe is answered by whatever already listens there
+        try (var socket = new ServerSocket()) {
+            socket.bind(new InetSocketAddress(port));
+        } catch (IOException exception) {
+            throw new IllegalStateException("Port " + port + " is already in use, stop that process or set app.port",
+                    exception);
+        }
+    }
+
+    @SneakyThrows
+    private Properties resolveSettings() {
+        var resolved = new Properties();
+        try (var reader = new FileReader(properties.toFile())) {
+            resolved.load(reader);
+        }
+        override(resolved, "spring.datasource.url", System.getProperty("db.url"));
+        override(resolved, "spring.datasource.username", System.getProperty("db.username"));
+        override(resolved, "spring.datasource.password", System.getProperty("db.password"));
+        var gatePort = System.getProperty("gate.port");
+        if (gatePort != null) {
+            resolved.setProperty("spring.payment-gate.url", "http://localhost:" + gatePort + "/payment");
+            resolved.setProperty("spring.credit-gate.url", "http://localhost:" + gatePort + "/credit");
+        }
+        resolved.setProperty("server.port", String.valueOf(port));
+        if (resolved.getProperty("spring.datasource.url", "").startsWith("jdbc:h2:")) {
+            // the in-memory database starts empty, let Hibernate create the schema
+            resolved.setProperty("spring.jpa.hibernate.ddl-auto", "update");
+        }
+        return resolved;
+    }
+
+    private static void override(Properties properties, String name, String value) {
+        if (value != null) {
+            properties.setProperty(name, value);
+        }
+    }
+
+    private List<String> command() {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (recording != null) {
+            command.add(AppProfiler.startupOption(Path.of(recording)));
+        }
+        if (isEmbeddedDatabase()) {
+            // aqa-shop does not bundle the H2 driver, PropertiesLauncher adds it through loader.path
+            command.add("-Dloader.path=" + EmbeddedDatabase.driverJar());
+            command.add("-cp");
+            command.add(jar.toString());
+            command.add("org.springframework.boot.loader.PropertiesLauncher");
+        } else {
+            command.add("-jar");
+            command.add(jar.toString());
+        }
+        settings.stringPropertyNames().forEach(name -> command.add("--" + name + "=" + settings.getProperty(name)));
+        return command;
+    }
+
+    private double awaitFirstPayment(long started) {
+        var probe = new ApiClient(getBaseUri());
+        var card = new FastDataGenerator(0).approvedCard(0);
+        var deadline = started + startTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("aqa-shop exited with code " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (probe.pay(card).statusCode() == 200) {
+                    return (System.nanoTime() - started) / 1e6;
+                }
+            } catch (Exception exception) {
+                // not listening yet
+            }
+            sleep(pollIntervalMillis);
+        }
+        close();
+        throw new IllegalStateException("aqa-shop did not answer /api/v1/pay within " + startTimeout + ", see " + log);
+    }
+
+    private void recordStartup(double startupMillis) {
+        var file = Path.of("build", "app-startup", backend() + ".json");
+        var history = Files.exists(file) ? Reports.read(file, StartupHistory.class) : new StartupHistory(backend(), new ArrayList<>());
+        history.getColdStartMillis().add(startupMillis);
+        var runs = history.getColdStartMillis();
+        if (runs.size() > HISTORY_LIMIT) {
+            runs.subList(0, runs.size() - HISTORY_LIMIT).clear();
+        }
+        Reports.write(file, history);
+    }
+
+    private boolean isEmbeddedDatabase() {
+        return settings.getProperty("spring.datasource.url", "").startsWith("jdbc:h2:");
+    }
+
+    private String backend() {
+        var url = settings.getProperty("spring.datasource.url", "");
+        return url.startsWith("jdbc:postgresql") ? "postgresql" : url.startsWith("jdbc:mysql") ? "mysql"
+                : url.startsWith("jdbc:h2") ? "h2" : "unknown";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StartupHistory {
+        private String backend;
+        private List<Double> coldStartMillis;
+    }
+}
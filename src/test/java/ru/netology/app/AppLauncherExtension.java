@@ -0,0 +1,22 @@
+package ru.netology.app;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+public class AppLauncherExtension implements BeforeAllCallback {
+
+    private static final boolean enabled = Boolean.getBoolean("app.launch");
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(AppLauncherExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!enabled) {
+            return;
+        }
+        // one application for the whole run, stopped when the root context closes
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("app", key -> {
+            var launcher = new AppLauncher().start();
+            return (ExtensionContext.Store.CloseableResource) launcher::close;
+        });
+    }
+}
@@ -1,39 +1,46 @@
 package ru.netology.data;
 
-import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.log.LogDetail;
-import io.restassured.http.ContentType;
-import io.restassured.specification.RequestSpecification;
+import io.qameta.allure.Allure;
+import ru.netology.perf.PhaseTimer;
 
-import static io.restassured.RestAssured.given;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 public class APIHelper {
 
-    private static RequestSpecification requestSpec = new RequestSpecBuilder()
-            .setBaseUri("http://localhost")
-            .setPort(8080)
-            .setAccept(ContentType.JSON)
-            .setContentType(ContentType.JSON)
-            .log(LogDetail.ALL)
-            .build();
-
-    public static void createPayment(DataGenerator.CardInfo cardInfo) {
-        given()
-                .spec(requestSpec)
-                .body(cardInfo)
-                .when()
-                .post("/api/v1/pay")
-                .then()
-                .statusCode(200);
+    private static ApiClient client = ApiClient.shared();
+    private static boolean log = Boolean.getBoolean("api.log");
+
+    public static DataGenerator.ApiResponse createPayment(DataGenerator.CardInfo cardInfo) {
+        var response = PhaseTimer.time(PhaseTimer.Phase.HTTP, () -> client.pay(cardInfo));
+        log(cardInfo, response);
+        assertEquals(200, response.statusCode(), "POST /api/v1/pay: " + response.body());
+        var parsed = ApiClient.parse(response);
+        assertNotNull(parsed.getId(), "POST /api/v1/pay returned no id: " + response.body());
+        DatabaseReset.tagPayment(parsed.getId());
+        return parsed;
+    }
+
+    public static DataGenerator.ApiResponse createCredit(DataGenerator.CardInfo cardInfo) {
+        var response = PhaseTimer.time(PhaseTimer.Phase.HTTP, () -> client.credit(cardInfo));
+        log(cardInfo, response);
+        assertEquals(200, response.statusCode(), "POST /api/v1/credit: " + response.body());
+        var parsed = ApiClient.parse(response);
+        assertNotNull(parsed.getId(), "POST /api/v1/credit returned no id: " + response.body());
+        DatabaseReset.tagCredit(parsed.getId());
+        return parsed;
     }
 
-    public static void createCredit(DataGenerator.CardInfo cardInfo) {
-        given()
-                .spec(requestSpec)
-                .body(cardInfo)
-                .when()
-                .post("/api/v1/credit")
-                .then()
-                .statusCode(200);
+    private static void log(DataGenerator.CardInfo cardInfo, HttpResponse<String> response) {
+        if (!log) {
+            return;
+        }
+        var request = response.request();
+        Allure.addAttachment("Request " + request.method() + " " + request.uri(), "application/json",
+                new String(ApiClient.toJson(cardInfo), StandardCharsets.UTF_8), ".json");
+        Allure.addAttachment("Response " + response.statusCode(), "application/json", response.body(), ".json");
     }
 }
@@ -0,0 +1,150 @@
+package ru.netology.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public class ApiClient {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final byte[] NUMBER_PREFIX = ascii("{\"number\":");
+    private static final byte[] MONTH_PREFIX = ascii(",\"month\":");
+    private static final byte[] YEAR_PREFIX = ascii(",\"year\":");
+    private static final byte[] HOLDER_PREFIX = ascii(",\"holder\":");
+    private static final byte[] CVC_PREFIX = ascii(",\"cvc\":");
+    private static final byte[] SUFFIX = ascii("}");
+    private static final byte[] NULL = ascii("null");
+    private static final int TEMPLATE_LENGTH = NUMBER_PREFIX.length + MONTH_PREFIX.length + YEAR_PREFIX.length
+            + HOLDER_PREFIX.length + CVC_PREFIX.length + SUFFIX.length;
+
+    private final HttpClient client;
+    private final URI payUri;
+    private final URI creditUri;
+
+    public ApiClient(String baseUri) {
+        // the JDK client keeps connections alive and reuses them; over plain http HTTP/2 costs an h2c upgrade
+        // attempt on every new connection, and the application does not offer it, so it is opt-in
+        var version = Boolean.getBoolean("api.http2")
+                ? HttpClient.Version.HTTP_2
+                : HttpClient.Version.HTTP_1_1;
+        this.client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.payUri = URI.create(baseUri + "/api/v1/pay");
+        this.creditUri = URI.create(baseUri + "/api/v1/credit");
+    }
+
+    public static ApiClient shared() {
+        return Shared.instance;
+    }
+
+    public static String baseUri() {
+        // AppLauncher sets api.baseUri to the port it started the application on
+        return System.getProperty("api.baseUri", "http://localhost:" + Integer.getInteger("app.port", 8080));
+    }
+
+    @SneakyThrows
+    public HttpResponse<String> pay(DataGenerator.CardInfo cardInfo) {
+        return client.send(request(payUri, cardInfo), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SneakyThrows
+    public HttpResponse<String> credit(DataGenerator.CardInfo cardInfo) {
+        return client.send(request(creditUri, cardInfo), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public CompletableFuture<HttpResponse<String>> payAsync(DataGenerator.CardInfo cardInfo) {
+        return client.sendAsync(request(payUri, cardInfo), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public CompletableFuture<HttpResponse<String>> creditAsync(DataGenerator.CardInfo cardInfo) {
+        return client.sendAsync(request(creditUri, cardInfo), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SneakyThrows
+    public static DataGenerator.ApiResponse parse(HttpResponse<String> response) {
+        var body = response.body();
+        return body == null || body.isBlank()
+                ? new DataGenerator.ApiResponse()
+                : mapper.readValue(body, DataGenerator.ApiResponse.class);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private HttpRequest request(URI uri, DataGenerator.CardInfo cardInfo) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(cardInfo)))
+                .build();
+    }
+
+    private static class Shared {
+        // created on first use, after a launched application has published its address
+        private static final ApiClient instance = new ApiClient(baseUri());
+    }
+
+    static byte[] toJson(DataGenerator.CardInfo cardInfo) {
+        // constant segments of the template are encoded once, only the field values are encoded per request
+        var number = encode(cardInfo.getNumber());
+        var month = encode(cardInfo.getMonth());
+        var year = encode(cardInfo.getYear());
+        var holder = encode(cardInfo.getHolder());
+        var cvc = encode(cardInfo.getCvc());
+        var body = new byte[TEMPLATE_LENGTH + number.length + month.length + year.length + holder.length + cvc.length];
+        var position = copy(NUMBER_PREFIX, body, 0);
+        position = copy(number, body, position);
+        position = copy(MONTH_PREFIX, body, position);
+        position = copy(month, body, position);
+        position = copy(YEAR_PREFIX, body, position);
+        position = copy(year, body, position);
+        position = copy(HOLDER_PREFIX, body, position);
+        position = copy(holder, body, position);
+        position = copy(CVC_PREFIX, body, position);
+        position = copy(cvc, body, position);
+        copy(SUFFIX, body, position);
+        return body;
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        var plain = true;
+        for (int i = 0; i < value.length() && plain; i++) {
+            var c = value.charAt(i);
+            plain = c >= 0x20 && c != '"' && c != '\\';
+        }
+        if (plain) {
+            return ('"' + value + '"').getBytes(StandardCharsets.UTF_8);
+        }
+        var json = new StringBuilder(value.length() + 8).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
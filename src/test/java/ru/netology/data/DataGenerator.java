@@ -1,7 +1,9 @@
 package ru.netology.data;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.github.javafaker.Faker;
 import lombok.*;
+import ru.netology.perf.PhaseTimer;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -12,83 +14,98 @@ public class DataGenerator {
     private static Faker faker = new Faker(new Locale("en"));
 
     private static int validYear = Integer.parseInt(getCurrentYear()) + 1;
-    private static String ApprovedCard = "4444 4444 4444 4441";
-    private static String DeclinedCard = "4444 4444 4444 4442";
+    static String ApprovedCard = "4444 4444 4444 4441";
+    static String DeclinedCard = "4444 4444 4444 4442";
 
 
     public static CardInfo generateDataWithApprovedCard() {
-        var randomName = faker.name().fullName();
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithDeclineCard() {
-
-        var randomName = faker.name().fullName();
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(DeclinedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(DeclinedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithRandomCardNumber() {
-        var randomName = faker.name().fullName();
-        var randomCardNumber = faker.number().digits(16);
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(randomCardNumber, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCardNumber = faker.number().digits(16);
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(randomCardNumber, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithApprovedCardAndParametrizedMonthAndYear(String month, String year) {
-        var randomName = faker.name().fullName();
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(ApprovedCard, month, year, randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(ApprovedCard, month, year, randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithParametrizedLengthCardHolderName(int length) {
-        var randomName = faker.lorem().fixedString(length);
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.lorem().fixedString(length);
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithParametrizedCardHolderName(String name) {
-        var randomCvc = faker.number().digits(3);
-        return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), name, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomCvc = faker.number().digits(3);
+            return new CardInfo(ApprovedCard, getCurrentMonth(), String.valueOf(validYear), name, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithAnExpiredCardForOneMonth() {
-        var randomName = faker.name().fullName();
-        var randomCvc = faker.number().digits(3);
-        var currentMonth = Integer.parseInt(getCurrentMonth());
-        var currentYear = Integer.parseInt(getCurrentYear());
-        if (currentMonth == 1) {
-            currentMonth = 12;
-            currentYear = currentYear - 1;
-        } else currentMonth = currentMonth - 1;
-
-        String minusOneFromCurrentMonth = "";
-        if (currentMonth < 10) {
-            minusOneFromCurrentMonth = "0" + currentMonth;
-        }
-        return new CardInfo(ApprovedCard, minusOneFromCurrentMonth,
-                String.valueOf(currentYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCvc = faker.number().digits(3);
+            var currentMonth = Integer.parseInt(getCurrentMonth());
+            var currentYear = Integer.parseInt(getCurrentYear());
+            if (currentMonth == 1) {
+                currentMonth = 12;
+                currentYear = currentYear - 1;
+            } else currentMonth = currentMonth - 1;
+
+            String minusOneFromCurrentMonth = "";
+            if (currentMonth < 10) {
+                minusOneFromCurrentMonth = "0" + currentMonth;
+            }
+            return new CardInfo(ApprovedCard, minusOneFromCurrentMonth,
+                    String.valueOf(currentYear), randomName, randomCvc);
+        });
     }
 
     public static CardInfo generateDataWithMaxDateMinusOneMonth() {
-        var randomName = faker.name().fullName();
-        var randomCvc = faker.number().digits(3);
-        var currentMonth = Integer.parseInt(getCurrentMonth());
-        var preMaxMonth = 0;
-        var maxYear = Integer.parseInt(getCurrentYear()) + 5;
-
-        if (currentMonth == 1) {
-            preMaxMonth = 12;
-            maxYear = maxYear - 1;
-        } else preMaxMonth = currentMonth - 1;
-
-        String strPreMaxMonth = "";
-        if (preMaxMonth < 10) {
-            strPreMaxMonth = "0" + preMaxMonth;
-        }
-        return new CardInfo(ApprovedCard, strPreMaxMonth,
-                String.valueOf(maxYear), randomName, randomCvc);
+        return PhaseTimer.time(PhaseTimer.Phase.DATA, () -> {
+            var randomName = faker.name().fullName();
+            var randomCvc = faker.number().digits(3);
+            var currentMonth = Integer.parseInt(getCurrentMonth());
+            var preMaxMonth = 0;
+            var maxYear = Integer.parseInt(getCurrentYear()) + 5;
+
+            if (currentMonth == 1) {
+                preMaxMonth = 12;
+                maxYear = maxYear - 1;
+            } else preMaxMonth = currentMonth - 1;
+
+            String strPreMaxMonth = "";
+            if (preMaxMonth < 10) {
+                strPreMaxMonth = "0" + preMaxMonth;
+            }
+            return new CardInfo(ApprovedCard, strPreMaxMonth,
+                    String.valueOf(maxYear), randomName, randomCvc);
+        });
     }
 
     public static String getCurrentMonth() {
@@ -114,6 +131,15 @@ public class DataGenerator {
         String cvc;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ApiResponse {
+        private String id;
+        private String status;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
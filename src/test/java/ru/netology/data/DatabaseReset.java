@@ -0,0 +1,253 @@
+package ru.netology.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DatabaseReset {
+
+    private static final String[] TABLES = {"order_entity", "payment_entity", "credit_request_entity"};
+    private static final String MYSQL = "mysql";
+    private static final String POSTGRESQL = "postgresql";
+    private static final String H2 = "h2";
+
+    private static final Strategy strategy =
+            Strategy.valueOf(System.getProperty("db.reset", "delete").toUpperCase(Locale.ROOT));
+    private static final ThreadLocal<List<String>> paymentTags = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<List<String>> creditTags = ThreadLocal.withInitial(ArrayList::new);
+
+    private static final LongAdder resets = new LongAdder();
+    private static final LongAdder totalNanos = new LongAdder();
+    private static final AtomicLong maxNanos = new AtomicLong();
+    private static final AtomicLong maxEstimatedRows = new AtomicLong();
+    private static boolean snapshotTaken;
+    private static String backend;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseReset::writeReport, "db-reset-report"));
+    }
+
+    public enum Strategy {
+        DELETE, TRUNCATE, TAGGED, SNAPSHOT
+    }
+
+    private DatabaseReset() {
+    }
+
+    public static void tagPayment(String transactionId) {
+        if (strategy == Strategy.TAGGED && transactionId != null) {
+            paymentTags.get().add(transactionId);
+        }
+    }
+
+    public static void tagCredit(String bankId) {
+        if (strategy == Strategy.TAGGED && bankId != null) {
+            creditTags.get().add(bankId);
+        }
+    }
+
+    public static Strategy strategy() {
+        return strategy;
+    }
+
+    static synchronized void prepare(Connection conn) throws SQLException {
+        backendOf(conn);
+        if (strategy == Strategy.SNAPSHOT && !snapshotTaken) {
+            takeSnapshot(conn);
+            snapshotTaken = true;
+        }
+    }
+
+    static void reset(Connection conn) throws SQLException {
+        var backend = backendOf(conn);
+        maxEstimatedRows.accumulateAndGet(estimatedRows(conn, backend), Math::max);
+        var started = System.nanoTime();
+        switch (strategy) {
+            case TRUNCATE:
+                truncate(conn, backend);
+                break;
+            case TAGGED:
+                deleteTagged(conn);
+                break;
+            case SNAPSHOT:
+                restoreSnapshot(conn, backend);
+                break;
+            default:
+                delete(conn);
+        }
+        var elapsed = System.nanoTime() - started;
+        resets.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private static void delete(Connection conn) throws SQLException {
+        inTransaction(conn, () -> {
+            try (var statement = conn.createStatement()) {
+                for (String table : TABLES) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+        });
+    }
+
+    private static void truncate(Connection conn, String backend) throws SQLException {
+        try (var statement = conn.createStatement()) {
+            if (backend.equals(POSTGRESQL)) {
+                statement.execute("TRUNCATE " + String.join(", ", TABLES));
+                return;
+            }
+            // MySQL and H2 refuse to truncate a referenced table even when the referencing one is empty
+            var h2 = backend.equals(H2);
+            statement.execute(h2 ? "SET REFERENTIAL_INTEGRITY FALSE" : "SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String table : TABLES) {
+                    statement.execute("TRUNCATE TABLE " + table);
+                }
+            } finally {
+                statement.execute(h2 ? "SET REFERENTIAL_INTEGRITY TRUE" : "SET FOREIGN_KEY_CHECKS = 1");
+            }
+        }
+    }
+
+    private static void deleteTagged(Connection conn) throws SQLException {
+        var payments = paymentTags.get();
+        var credits = creditTags.get();
+        inTransaction(conn, () -> {
+            deleteIn(conn, "order_entity", "payment_id", payments);
+            deleteIn(conn, "order_entity", "credit_id", credits);
+            deleteIn(conn, "payment_entity", "transaction_id", payments);
+            deleteIn(conn, "credit_request_entity", "bank_id", credits);
+        });
+        payments.clear();
+        credits.clear();
+    }
+
+    private static void deleteIn(Connection conn, String table, String column, List<String> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        var placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        try (var statement = conn.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + column + " IN (" + placeholders + ")")) {
+            for (int i = 0; i < ids.size(); i++) {
+                statement.setString(i + 1, ids.get(i));
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    private static void restoreSnapshot(Connection conn, String backend) throws SQLException {
+        // the application keeps its pool open on the app database, so it cannot be dropped and re-created
+        // from a PostgreSQL template; both backends restore from snapshot tables instead
+        synchronized (DatabaseReset.class) {
+            if (!snapshotTaken) {
+                throw new IllegalStateException("No baseline snapshot, it is taken by DatabaseResetExtension before the first test");
+            }
+        }
+        truncate(conn, backend);
+        inTransaction(conn, () -> {
+            try (var statement = conn.createStatement()) {
+                for (int i = TABLES.length - 1; i >= 0; i--) {
+                    statement.executeUpdate("INSERT INTO " + TABLES[i] + " SELECT * FROM " + TABLES[i] + "_snapshot");
+                }
+            }
+        });
+    }
+
+    private static void takeSnapshot(Connection conn) throws SQLException {
+        try (var statement = conn.createStatement()) {
+            for (String table : TABLES) {
+                statement.execute("DROP TABLE IF EXISTS " + table + "_snapshot");
+                statement.execute("CREATE TABLE " + table + "_snapshot AS SELECT * FROM " + table);
+            }
+        }
+    }
+
+    private static long estimatedRows(Connection conn, String backend) throws SQLException {
+        String sql;
+        switch (backend) {
+            case POSTGRESQL:
+                sql = "SELECT COALESCE(SUM(GREATEST(reltuples, 0)), 0) FROM pg_class " +
+                        "WHERE relname IN ('order_entity', 'payment_entity', 'credit_request_entity')";
+                break;
+            case H2:
+                sql = "SELECT COALESCE(SUM(row_count_estimate), 0) FROM information_schema.tables " +
+                        "WHERE table_schema = CURRENT_SCHEMA " +
+                        "AND LOWER(table_name) IN ('order_entity', 'payment_entity', 'credit_request_entity')";
+                break;
+            default:
+                sql = "SELECT COALESCE(SUM(table_rows), 0) FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() " +
+                        "AND table_name IN ('order_entity', 'payment_entity', 'credit_request_entity')";
+        }
+        try (var statement = conn.createStatement(); var result = statement.executeQuery(sql)) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    private static void inTransaction(Connection conn, SqlWork work) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            work.run();
+            conn.commit();
+        } catch (SQLException exception) {
+            conn.rollback();
+            throw exception;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static String backendOf(Connection conn) throws SQLException {
+        if (backend == null) {
+            var product = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            backend = product.contains("postgres") ? POSTGRESQL : product.contains("h2") ? H2 : MYSQL;
+        }
+        return backend;
+    }
+
+    private static void writeReport() {
+        var count = resets.sum();
+        if (count == 0) {
+            return;
+        }
+        var report = new ResetReport(
+                strategy.name().toLowerCase(Locale.ROOT),
+                backend,
+                count,
+                maxEstimatedRows.get(),
+                TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / count) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(maxNanos.get()) / 1000.0);
+        System.out.println("Database reset: " + Reports.toJson(report));
+        Reports.write(Path.of("build", "db-reset", report.getStrategy() + "-" + backend + ".json"), report);
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResetReport {
+        private String strategy;
+        private String backend;
+        private long resets;
+        private long maxEstimatedRows;
+        private double avgMillis;
+        private double maxMillis;
+    }
+}
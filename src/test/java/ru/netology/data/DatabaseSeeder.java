@@ -0,0 +1,196 @@
+package ru.netology.data;
+
+import lombok.SneakyThrows;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+public class DatabaseSeeder {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+    private static final int AMOUNT = 4_500_000;
+
+    private final long rows;
+    private final long seed;
+    private final double creditShare;
+    private final double approvedShare;
+    private final long run;
+    private final long startMillis;
+
+    public DatabaseSeeder(long rows, long seed, long run, double creditShare, double approvedShare) {
+        this.rows = rows;
+        this.seed = seed;
+        this.run = run;
+        this.creditShare = creditShare;
+        this.approvedShare = approvedShare;
+        this.startMillis = System.currentTimeMillis() - rows * 10;
+    }
+
+    public static void main(String[] args) {
+        var seeder = new DatabaseSeeder(
+                Long.getLong("seed.rows", 1_000_000L),
+                Long.getLong("seed.seed", 42L),
+                // ids also depend on the run, so seeding again adds rows instead of hitting duplicate keys
+                Long.getLong("seed.run", System.currentTimeMillis()),
+                Double.parseDouble(System.getProperty("seed.creditShare", "0.5")),
+                Double.parseDouble(System.getProperty("seed.approvedShare", "0.5")));
+        seeder.seed();
+    }
+
+    @SneakyThrows
+    public void seed() {
+        try (var conn = SQLHelper.getConn()) {
+            var postgres = conn.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+            var started = System.nanoTime();
+            if (postgres) {
+                copyPostgres(conn);
+            } else {
+                batchInsert(conn);
+            }
+            report("all tables", rows * 2, started);
+            System.out.printf("Seed run %d, pass -Dseed.run=%d to reproduce the same ids%n", run, run);
+        }
+    }
+
+    private void batchInsert(Connection conn) throws Exception {
+        conn.setAutoCommit(false);
+        try (var payment = conn.prepareStatement(
+                "INSERT INTO payment_entity (id, amount, created, status, transaction_id) VALUES (?, ?, ?, ?, ?)");
+             var credit = conn.prepareStatement(
+                     "INSERT INTO credit_request_entity (id, bank_id, created, status) VALUES (?, ?, ?, ?)");
+             var order = conn.prepareStatement(
+                     "INSERT INTO order_entity (id, created, credit_id, payment_id) VALUES (?, ?, ?, ?)")) {
+            var started = System.nanoTime();
+            for (long i = 0; i < rows; i++) {
+                var created = new Timestamp(createdMillis(i));
+                if (isCredit(i)) {
+                    credit.setString(1, uuid(i, 1));
+                    credit.setString(2, uuid(i, 2));
+                    credit.setTimestamp(3, created);
+                    credit.setString(4, status(i));
+                    credit.addBatch();
+                } else {
+                    payment.setString(1, uuid(i, 1));
+                    payment.setInt(2, AMOUNT);
+                    payment.setTimestamp(3, created);
+                    payment.setString(4, status(i));
+                    payment.setString(5, uuid(i, 2));
+                    payment.addBatch();
+                }
+                order.setString(1, uuid(i, 3));
+                order.setTimestamp(2, created);
+                order.setString(3, isCredit(i) ? uuid(i, 2) : null);
+                order.setString(4, isCredit(i) ? null : uuid(i, 2));
+                order.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    flush(conn, payment, credit, order);
+                }
+            }
+            flush(conn, payment, credit, order);
+            report("payment_entity + credit_request_entity + order_entity (batched)", rows * 2, started);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void flush(Connection conn, PreparedStatement... statements) throws Exception {
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private void copyPostgres(Connection conn) throws Exception {
+        var copy = conn.unwrap(PGConnection.class).getCopyAPI();
+        // one COPY at a time per connection, so each table is its own pass over the same deterministic rows
+        var started = System.nanoTime();
+        var copied = copyTable(copy.copyIn("COPY payment_entity (id, amount, created, status, transaction_id) " +
+                "FROM STDIN WITH (FORMAT csv)"), false, (i, line) -> line
+                .append(uuid(i, 1)).append(',').append(AMOUNT).append(',')
+                .append(new Timestamp(createdMillis(i))).append(',')
+                .append(status(i)).append(',').append(uuid(i, 2)));
+        report("payment_entity (COPY)", copied, started);
+
+        started = System.nanoTime();
+        copied = copyTable(copy.copyIn("COPY credit_request_entity (id, bank_id, created, status) " +
+                "FROM STDIN WITH (FORMAT csv)"), true, (i, line) -> line
+                .append(uuid(i, 1)).append(',').append(uuid(i, 2)).append(',')
+                .append(new Timestamp(createdMillis(i))).append(',').append(status(i)));
+        report("credit_request_entity (COPY)", copied, started);
+
+        started = System.nanoTime();
+        copied = copyTable(copy.copyIn("COPY order_entity (id, created, credit_id, payment_id) " +
+                "FROM STDIN WITH (FORMAT csv)"), null, (i, line) -> line
+                .append(uuid(i, 3)).append(',')
+                .append(new Timestamp(createdMillis(i))).append(',')
+                .append(isCredit(i) ? uuid(i, 2) : "").append(',')
+                .append(isCredit(i) ? "" : uuid(i, 2)));
+        report("order_entity (COPY)", copied, started);
+    }
+
+    private long copyTable(CopyIn copyIn, Boolean credits, CsvRow row) throws Exception {
+        var buffer = new StringBuilder(COPY_BUFFER_CHARS + 256);
+        long copied = 0;
+        try {
+            for (long i = 0; i < rows; i++) {
+                if (credits != null && credits != isCredit(i)) {
+                    continue;
+                }
+                row.append(i, buffer).append('\n');
+                copied++;
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        return copied;
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws Exception {
+        var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private boolean isCredit(long i) {
+        return unit(FastDataGenerator.mix(seed ^ i)) < creditShare;
+    }
+
+    private String status(long i) {
+        return unit(FastDataGenerator.mix(seed + i)) < approvedShare ? "APPROVED" : "DECLINED";
+    }
+
+    private long createdMillis(long i) {
+        return startMillis + i * 10;
+    }
+
+    private String uuid(long i, int column) {
+        var key = i * 4 + column;
+        return new UUID(FastDataGenerator.mix(seed + key), FastDataGenerator.mix(FastDataGenerator.mix(run) ^ ~key)).toString();
+    }
+
+    private static double unit(long random) {
+        return (random >>> 11) * 0x1.0p-53;
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        var seconds = Math.max(System.nanoTime() - startedNanos, 1) / 1e9;
+        System.out.printf("Seeded %s: %d rows in %.1f s (%.0f rows/s)%n", table, rows, seconds, rows / seconds);
+    }
+
+    private interface CsvRow {
+        StringBuilder append(long index, StringBuilder line);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.netology.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import org.h2.tools.Server;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.util.Locale;
+
+public class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String USERNAME = "app";
+    private static final String PASSWORD = "pass";
+
+    private final String mode;
+    private final int port;
+    private Server server;
+
+    public EmbeddedDatabase(String mode, int port) {
+        this.mode = mode.toLowerCase(Locale.ROOT).startsWith("postgres") ? "PostgreSQL" : "MySQL";
+        this.port = port;
+    }
+
+    public static EmbeddedDatabase startIfConfigured() {
+        var mode = System.getProperty("db.embedded");
+        return mode == null ? null : new EmbeddedDatabase(mode, Integer.getInteger("db.embedded.port", 9092)).start();
+    }
+
+    @SneakyThrows
+    public EmbeddedDatabase start() {
+        var started = System.nanoTime();
+        server = Server.createTcpServer("-tcpPort", String.valueOf(port), "-ifNotExists").start();
+        // the first connection creates the database, the delay keeps it alive between connections
+        DriverManager.getConnection(getUrl(), USERNAME, PASSWORD).close();
+        var startupMillis = (System.nanoTime() - started) / 1e6;
+
+        // SQLHelper and the launched application both read these when they first connect
+        System.setProperty("db.url", getUrl());
+        System.setProperty("db.username", USERNAME);
+        System.setProperty("db.password", PASSWORD);
+        Reports.write(Path.of("build", "embedded-db", mode.toLowerCase(Locale.ROOT) + ".json"),
+                new Startup(mode, getUrl(), startupMillis));
+        System.out.printf("Embedded H2 (%s mode) started on port %d in %.1f ms%n", mode, port, startupMillis);
+        return this;
+    }
+
+    public String getUrl() {
+        return "jdbc:h2:tcp://localhost:" + port + "/mem:app;MODE=" + mode
+                + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    }
+
+    @SneakyThrows
+    public static Path driverJar() {
+        return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Startup {
+        private String mode;
+        private String url;
+        private double startupMillis;
+    }
+}
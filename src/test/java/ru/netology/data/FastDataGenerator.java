@@ -0,0 +1,151 @@
+package ru.netology.data;
+
+import com.github.javafaker.Faker;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+public class FastDataGenerator {
+
+    private static final int NAME_POOL_SIZE = 4096;
+    private static final String[] CVC_POOL = new String[1000];
+    public static final long ACCOUNT_RANGE = 100_000_000_000L;
+
+    static {
+        for (int i = 0; i < CVC_POOL.length; i++) {
+            CVC_POOL[i] = String.format("%03d", i);
+        }
+    }
+
+    private final long seed;
+    private final String[] names;
+    private final String month;
+    private final String year;
+
+    public FastDataGenerator(long seed) {
+        this.seed = seed;
+        var faker = new Faker(new Locale("en"), new Random(seed));
+        this.names = new String[NAME_POOL_SIZE];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = faker.name().fullName();
+        }
+        var today = LocalDate.now();
+        this.month = String.format("%02d", today.getMonthValue());
+        this.year = String.format("%02d", (today.getYear() + 1) % 100);
+    }
+
+    public DataGenerator.CardInfo approvedCard(long index) {
+        return cardAt(index, DataGenerator.ApprovedCard);
+    }
+
+    public DataGenerator.CardInfo declinedCard(long index) {
+        return cardAt(index, DataGenerator.DeclinedCard);
+    }
+
+    public DataGenerator.CardInfo randomCard(long index) {
+        return cardAt(index, luhnCardNumber(mix(seed ^ mix(index + 0x5851F42D4C957F2DL))));
+    }
+
+    public DataGenerator.CardInfo cardWithNumber(long index, String number) {
+        return cardAt(index, number);
+    }
+
+    public Stream<DataGenerator.CardInfo> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::randomCard);
+    }
+
+    public Iterator<DataGenerator.CardInfo> iterator() {
+        return new Iterator<>() {
+            private long index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DataGenerator.CardInfo next() {
+                return randomCard(index++);
+            }
+        };
+    }
+
+    private DataGenerator.CardInfo cardAt(long index, String number) {
+        // every record is derived from (seed, index) only, so streams split across threads stay reproducible
+        var random = mix(seed + index * 0x9E3779B97F4A7C15L);
+        var name = names[(int) ((random >>> 32) % NAME_POOL_SIZE)];
+        var cvc = CVC_POOL[(int) ((random & 0xFFFFFFFFL) % CVC_POOL.length)];
+        return new DataGenerator.CardInfo(number, month, year, name, cvc);
+    }
+
+    public static String luhnCardNumber(long random) {
+        return format(luhnDigits(Math.floorMod(random, ACCOUNT_RANGE)));
+    }
+
+    public static long luhnPan(long account) {
+        return Long.parseLong(new String(luhnDigits(account)));
+    }
+
+    public static String formatPan(long pan) {
+        var digits = String.format("%016d", pan).toCharArray();
+        return format(digits);
+    }
+
+    private static char[] luhnDigits(long account) {
+        var digits = new char[16];
+        digits[0] = '4';
+        digits[1] = '4';
+        digits[2] = '4';
+        digits[3] = '4';
+        for (int i = 14; i >= 4; i--) {
+            digits[i] = (char) ('0' + account % 10);
+            account /= 10;
+        }
+        digits[15] = (char) ('0' + luhnCheckDigit(digits, 15));
+        return digits;
+    }
+
+    public static boolean isLuhnValid(String number) {
+        var digits = number.replace(" ", "").toCharArray();
+        return digits.length > 1
+                && luhnCheckDigit(digits, digits.length - 1) == digits[digits.length - 1] - '0';
+    }
+
+    private static int luhnCheckDigit(char[] digits, int length) {
+        var sum = 0;
+        var doubled = true;
+        for (int i = length - 1; i >= 0; i--) {
+            var digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static String format(char[] digits) {
+        var formatted = new char[19];
+        for (int i = 0, j = 0; i < digits.length; i++) {
+            if (i > 0 && i % 4 == 0) {
+                formatted[j++] = ' ';
+            }
+            formatted[j++] = digits[i];
+        }
+        return new String(formatted);
+    }
+
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
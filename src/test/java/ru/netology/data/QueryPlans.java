@@ -0,0 +1,163 @@
+package ru.netology.data;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class QueryPlans {
+
+    // lookups by id only need a well-formed value, the plan does not depend on whether the row exists
+    private static final String SAMPLE_ID = "00000000-0000-0000-0000-000000000000";
+    private static final Pattern ACTUAL_TIME = Pattern.compile("actual time=[\\d.]+\\.\\.([\\d.]+)");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static Map<String, String> harnessQueries() {
+        var queries = new LinkedHashMap<String, String>();
+        queries.put("latestCredit", SQLHelper.LATEST_CREDIT);
+        queries.put("creditByBankId", SQLHelper.CREDIT_BY_BANK_ID);
+        queries.put("latestPayment", SQLHelper.LATEST_PAYMENT);
+        queries.put("paymentByTransactionId", SQLHelper.PAYMENT_BY_TRANSACTION_ID);
+        queries.put("latestOrder", SQLHelper.LATEST_ORDER);
+        queries.put("orderByPaymentId", SQLHelper.ORDER_BY_PAYMENT_ID);
+        queries.put("orderByCreditId", SQLHelper.ORDER_BY_CREDIT_ID);
+        return queries;
+    }
+
+    @SneakyThrows
+    public static boolean isSupported() {
+        try (var conn = SQLHelper.getConn()) {
+            var product = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            return product.contains("postgres") || product.contains("mysql");
+        }
+    }
+
+    @SneakyThrows
+    public static Plan explain(String name, String sql) {
+        try (var conn = SQLHelper.getConn()) {
+            var product = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            var query = sql.replace("?", "'" + SAMPLE_ID + "'");
+            if (product.contains("postgres")) {
+                return explainPostgres(conn, name, query);
+            }
+            if (product.contains("mysql")) {
+                return explainMysql(conn, name, query);
+            }
+            throw new IllegalStateException("Query plans are only read for MySQL and PostgreSQL, not " + product);
+        }
+    }
+
+    private static Plan explainMysql(Connection conn, String name, String query) throws SQLException {
+        var accesses = new ArrayList<TableAccess>();
+        var sorted = false;
+        try (var statement = conn.createStatement();
+             var rs = statement.executeQuery("EXPLAIN " + query)) {
+            while (rs.next()) {
+                var type = String.valueOf(rs.getString("type"));
+                var extra = String.valueOf(rs.getString("Extra"));
+                sorted |= extra.contains("Using filesort");
+                accesses.add(new TableAccess(
+                        rs.getString("table"),
+                        type,
+                        rs.getString("key"),
+                        rs.getLong("rows"),
+                        type.equals("ALL") || type.equals("index")));
+            }
+        }
+        var executionMillis = -1.0;
+        try (var statement = conn.createStatement();
+             var rs = statement.executeQuery("EXPLAIN ANALYZE " + query)) {
+            if (rs.next()) {
+                var matcher = ACTUAL_TIME.matcher(rs.getString(1));
+                if (matcher.find()) {
+                    executionMillis = Double.parseDouble(matcher.group(1));
+                }
+            }
+        } catch (SQLException exception) {
+            // EXPLAIN ANALYZE needs MySQL 8.0.18+, fall back to timing the query itself
+            executionMillis = timeQuery(conn, query);
+        }
+        return new Plan(name, query, "mysql", accesses, sorted, executionMillis);
+    }
+
+    private static Plan explainPostgres(Connection conn, String name, String query) throws SQLException {
+        JsonNode root;
+        try (var statement = conn.createStatement();
+             var rs = statement.executeQuery("EXPLAIN (ANALYZE, FORMAT JSON) " + query)) {
+            rs.next();
+            root = readTree(rs.getString(1)).get(0);
+        }
+        var accesses = new ArrayList<TableAccess>();
+        var sorted = collect(root.get("Plan"), accesses);
+        return new Plan(name, query, "postgresql", accesses, sorted, root.path("Execution Time").asDouble(-1));
+    }
+
+    private static boolean collect(JsonNode node, List<TableAccess> accesses) {
+        var nodeType = node.path("Node Type").asText();
+        var sorted = nodeType.equals("Sort");
+        if (node.has("Relation Name")) {
+            var loops = Math.max(1, node.path("Actual Loops").asLong(1));
+            var examined = (node.path("Actual Rows").asLong() + node.path("Rows Removed by Filter").asLong()) * loops;
+            accesses.add(new TableAccess(
+                    node.get("Relation Name").asText(),
+                    nodeType,
+                    node.path("Index Name").asText(null),
+                    examined,
+                    nodeType.equals("Seq Scan")));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            sorted |= collect(child, accesses);
+        }
+        return sorted;
+    }
+
+    private static double timeQuery(Connection conn, String query) throws SQLException {
+        var started = System.nanoTime();
+        try (var statement = conn.createStatement();
+             var rs = statement.executeQuery(query)) {
+            while (rs.next()) {
+                // drain the result so the full execution is measured
+            }
+        }
+        return (System.nanoTime() - started) / 1e6;
+    }
+
+    @SneakyThrows
+    private static JsonNode readTree(String json) {
+        return mapper.readTree(json);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableAccess {
+        private String table;
+        private String accessType;
+        private String index;
+        private long rowsExamined;
+        private boolean fullScan;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Plan {
+        private String name;
+        private String sql;
+        private String backend;
+        private List<TableAccess> tables;
+        private boolean sorted;
+        private double executionMillis;
+    }
+}
@@ -1,75 +1,365 @@
 package ru.netology.data;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.handlers.BeanHandler;
+import org.apache.commons.dbutils.handlers.ScalarHandler;
+import ru.netology.perf.PhaseTimer;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class SQLHelper {
 
+    public static final String DATABASE = "database";
+
+    public static final String LATEST_CREDIT = "SELECT * FROM credit_request_entity ORDER BY created DESC LIMIT 1";
+    public static final String CREDIT_BY_BANK_ID = "SELECT * FROM credit_request_entity WHERE bank_id = ?";
+    public static final String LATEST_PAYMENT = "SELECT * FROM payment_entity ORDER BY created DESC LIMIT 1";
+    public static final String PAYMENT_BY_TRANSACTION_ID = "SELECT * FROM payment_entity WHERE transaction_id = ?";
+    public static final String LATEST_ORDER = "SELECT * FROM order_entity ORDER BY created DESC LIMIT 1";
+    public static final String ORDER_BY_PAYMENT_ID = "SELECT o.* FROM order_entity o " +
+            "JOIN payment_entity p ON p.transaction_id = o.payment_id WHERE p.transaction_id = ?";
+    public static final String ORDER_BY_CREDIT_ID = "SELECT o.* FROM order_entity o " +
+            "JOIN credit_request_entity c ON c.bank_id = o.credit_id WHERE c.bank_id = ?";
+    public static final String COUNT_PAYMENTS_BY_TRANSACTION_ID =
+            "SELECT count(*) FROM payment_entity WHERE transaction_id = ?";
+    public static final String COUNT_CREDITS_BY_BANK_ID = "SELECT count(*) FROM credit_request_entity WHERE bank_id = ?";
+    public static final String ALL_PAYMENTS = "SELECT id, amount, created, status, transaction_id FROM payment_entity";
+    public static final String ALL_CREDITS = "SELECT id, bank_id, created, status FROM credit_request_entity";
+    public static final String ALL_ORDERS = "SELECT id, created, credit_id, payment_id FROM order_entity";
+
     private static QueryRunner runner = new QueryRunner();
     private static String url = System.getProperty("db.url");
     private static String userName = System.getProperty("db.username");
     private static String password = System.getProperty("db.password");
 //  private static String url = "jdbc:mysql://localhost:3306/app";
 //  p rivate static String url = "jdbc:postgresql://localhost:5432/app";
+    private static int poolSize = Integer.parseInt(System.getProperty("db.pool.size", "10"));
+    private static long poolTimeout = Long.parseLong(System.getProperty("db.pool.timeout", "30000"));
+    private static int fetchSize = Integer.parseInt(System.getProperty("db.fetchSize", "1000"));
+
+    private static HikariDataSource dataSource;
+    private static final BorrowTracker borrowTracker = new BorrowTracker();
+    private static final ReadWriteLock cleanLock = new ReentrantReadWriteLock();
 
 
     public SQLHelper() {
     }
 
 
+    private static synchronized HikariDataSource getDataSource() {
+        if (dataSource == null) {
+            // validate every borrowed connection, not only the ones idle for more than 500 ms
+            System.setProperty("com.zaxxer.hikari.aliveBypassWindowMs", "0");
+            var config = new HikariConfig();
+            config.setPoolName("sql-helper");
+            config.setJdbcUrl(url);
+            config.setUsername(userName);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(Math.min(2, poolSize));
+            config.setConnectionTimeout(poolTimeout);
+            config.setMetricsTrackerFactory((poolName, poolStats) -> borrowTracker);
+            if (url != null && url.startsWith("jdbc:mysql:")) {
+                config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            }
+            dataSource = new HikariDataSource(config);
+            Runtime.getRuntime().addShutdownHook(new Thread(dataSource::close, "sql-helper-pool-shutdown"));
+        }
+        return dataSource;
+    }
+
     @SneakyThrows
-    private static Connection getConn() {
-        return DriverManager.getConnection(url, userName, password);
+    static Connection getConn() {
+        return getDataSource().getConnection();
+    }
+
+    public static PoolMetrics getPoolMetrics() {
+        var pool = getDataSource().getHikariPoolMXBean();
+        return new PoolMetrics(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                borrowTracker.borrows.sum(),
+                borrowTracker.timeouts.sum(),
+                borrowTracker.averageWaitMicros(),
+                TimeUnit.NANOSECONDS.toMicros(borrowTracker.maxWaitNanos.get()));
     }
 
 
+    private static <T> T queryBean(String sql, Class<T> type, Object... params) {
+        return PhaseTimer.time(PhaseTimer.Phase.DB, () -> {
+            cleanLock.readLock().lock();
+            try (var conn = getConn()) {
+                return runner.query(conn, sql, new BeanHandler<>(type), params);
+            } catch (SQLException exception) {
+                exception.printStackTrace();
+            } finally {
+                cleanLock.readLock().unlock();
+            }
+            return null;
+        });
+    }
+
+    private static long queryCount(String sql, Object... params) {
+        return PhaseTimer.time(PhaseTimer.Phase.DB, () -> {
+            cleanLock.readLock().lock();
+            try (var conn = getConn()) {
+                return runner.query(conn, sql, new ScalarHandler<Number>(), params).longValue();
+            } catch (SQLException exception) {
+                exception.printStackTrace();
+            } finally {
+                cleanLock.readLock().unlock();
+            }
+            return -1L;
+        });
+    }
+
     public static DataGenerator.CreditCardData getCreditCardData() {
-        var cardDataSQL = "SELECT * FROM credit_request_entity ORDER BY created DESC LIMIT 1";
-        try (var conn = getConn()) {
-            var result = runner.query(conn, cardDataSQL,
-                    new BeanHandler<>(DataGenerator.CreditCardData.class));
-            return result;
-        } catch (SQLException exception) {
-            exception.printStackTrace();
-        }
-        return null;
+        return queryBean(LATEST_CREDIT, DataGenerator.CreditCardData.class);
+    }
+
+    public static DataGenerator.CreditCardData getCreditCardData(String bankId) {
+        return queryBean(CREDIT_BY_BANK_ID, DataGenerator.CreditCardData.class, bankId);
     }
 
     public static DataGenerator.PaymentCardData getPaymentCardData() {
-        var cardDataSQL = "SELECT * FROM payment_entity ORDER BY created DESC LIMIT 1";
-        try (var conn = getConn()) {
-            var result = runner.query(conn, cardDataSQL,
-                    new BeanHandler<>(DataGenerator.PaymentCardData.class));
-            return result;
-        } catch (SQLException exception) {
-            exception.printStackTrace();
-        }
-        return null;
+        return queryBean(LATEST_PAYMENT, DataGenerator.PaymentCardData.class);
+    }
+
+    public static DataGenerator.PaymentCardData getPaymentCardData(String transactionId) {
+        return queryBean(PAYMENT_BY_TRANSACTION_ID, DataGenerator.PaymentCardData.class, transactionId);
     }
 
     public static DataGenerator.TableOrderEntity getTableOrderEntity() {
-        var orderEntityDataSQL = "SELECT * FROM order_entity ORDER BY created DESC LIMIT 1";
-        try (var conn = getConn()) {
-            var result = runner.query(conn, orderEntityDataSQL,
-                    new BeanHandler<>(DataGenerator.TableOrderEntity.class));
-            return result;
-        } catch (SQLException exception) {
-            exception.printStackTrace();
+        return queryBean(LATEST_ORDER, DataGenerator.TableOrderEntity.class);
+    }
+
+    public static DataGenerator.TableOrderEntity getTableOrderEntityByPaymentId(String transactionId) {
+        return queryBean(ORDER_BY_PAYMENT_ID, DataGenerator.TableOrderEntity.class, transactionId);
+    }
+
+    public static DataGenerator.TableOrderEntity getTableOrderEntityByCreditId(String bankId) {
+        return queryBean(ORDER_BY_CREDIT_ID, DataGenerator.TableOrderEntity.class, bankId);
+    }
+
+    public static long countPayments(String transactionId) {
+        return queryCount(COUNT_PAYMENTS_BY_TRANSACTION_ID, transactionId);
+    }
+
+    public static long countCredits(String bankId) {
+        return queryCount(COUNT_CREDITS_BY_BANK_ID, bankId);
+    }
+
+    public static Stream<DataGenerator.PaymentCardData> streamPayments() {
+        return stream(ALL_PAYMENTS, rs -> {
+            var id = rs.findColumn("id");
+            var amount = rs.findColumn("amount");
+            var created = rs.findColumn("created");
+            var status = rs.findColumn("status");
+            var transactionId = rs.findColumn("transaction_id");
+            return row -> new DataGenerator.PaymentCardData(row.getString(id), row.getString(amount),
+                    row.getString(created), row.getString(status), row.getString(transactionId));
+        });
+    }
+
+    public static Stream<DataGenerator.CreditCardData> streamCredits() {
+        return stream(ALL_CREDITS, rs -> {
+            var id = rs.findColumn("id");
+            var bankId = rs.findColumn("bank_id");
+            var created = rs.findColumn("created");
+            var status = rs.findColumn("status");
+            return row -> new DataGenerator.CreditCardData(row.getString(id), row.getString(bankId),
+                    row.getString(created), row.getString(status));
+        });
+    }
+
+    public static Stream<DataGenerator.TableOrderEntity> streamOrders() {
+        return stream(ALL_ORDERS, rs -> {
+            var id = rs.findColumn("id");
+            var created = rs.findColumn("created");
+            var creditId = rs.findColumn("credit_id");
+            var paymentId = rs.findColumn("payment_id");
+            return row -> new DataGenerator.TableOrderEntity(row.getString(id), row.getString(created),
+                    row.getString(creditId), row.getString(paymentId));
+        });
+    }
+
+    // the stream owns a pooled connection until closed; it does not take cleanLock, which is held per thread
+    @SneakyThrows
+    public static <T> Stream<T> stream(String sql, MapperFactory<T> mapperFactory, Object... params) {
+        var conn = getConn();
+        PreparedStatement statement = null;
+        try {
+            statement = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (url != null && url.startsWith("jdbc:mysql:")) {
+                // Connector/J only streams row by row with this exact fetch size
+                statement.setFetchSize(Integer.MIN_VALUE);
+            } else {
+                // PostgreSQL only opens a server-side cursor inside a transaction
+                conn.setAutoCommit(false);
+                statement.setFetchSize(fetchSize);
+            }
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            var rs = statement.executeQuery();
+            var mapper = mapperFactory.compile(rs);
+            var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                @SneakyThrows
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                }
+            };
+            var opened = statement;
+            return StreamSupport.stream(spliterator, false).onClose(() -> closeStream(rs, opened, conn));
+        } catch (SQLException | RuntimeException exception) {
+            var failure = closeAll(statement, conn);
+            if (failure != null) {
+                exception.addSuppressed(failure);
+            }
+            throw exception;
         }
-        return null;
     }
 
     @SneakyThrows
+    private static void closeStream(ResultSet rs, Statement statement, Connection conn) {
+        var failure = closeAll(rs, statement, conn);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static Exception closeAll(AutoCloseable... resources) {
+        // every resource is closed, the first failure is reported and the others are attached to it
+        Exception failure = null;
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception exception) {
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+        return failure;
+    }
+
+    public static void prepareDatabaseReset() {
+        PhaseTimer.run(PhaseTimer.Phase.DB, SQLHelper::prepareReset);
+    }
+
+    @SneakyThrows
+    private static void prepareReset() {
+        var lock = resetLock();
+        lock.lock();
+        try (var conn = getConn()) {
+            DatabaseReset.prepare(conn);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public static void cleanDatabase() {
-        var conn = getConn();
-        runner.execute(conn, "DELETE FROM order_entity");
-        runner.execute(conn, "DELETE FROM payment_entity");
-        runner.execute(conn, "DELETE FROM credit_request_entity");
+        PhaseTimer.run(PhaseTimer.Phase.DB, SQLHelper::resetDatabase);
+    }
+
+    @SneakyThrows
+    private static void resetDatabase() {
+        var lock = resetLock();
+        lock.lock();
+        try (var conn = getConn()) {
+            DatabaseReset.reset(conn);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Lock resetLock() {
+        // tagged cleanup deletes only the rows of its own test, so it runs alongside other readers
+        return DatabaseReset.strategy() == DatabaseReset.Strategy.TAGGED
+                ? cleanLock.readLock()
+                : cleanLock.writeLock();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PoolMetrics {
+        private int active;
+        private int idle;
+        private int total;
+        private int awaiting;
+        private long borrows;
+        private long timeouts;
+        private long avgBorrowWaitMicros;
+        private long maxBorrowWaitMicros;
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface MapperFactory<T> {
+        RowMapper<T> compile(ResultSet rs) throws SQLException;
+    }
+
+    private static class BorrowTracker implements IMetricsTracker {
+        private final LongAdder borrows = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            borrows.increment();
+            totalWaitNanos.add(elapsedAcquiredNanos);
+            maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        private long averageWaitMicros() {
+            var count = borrows.sum();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum() / count);
+        }
     }
 }
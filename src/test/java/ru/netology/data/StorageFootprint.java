@@ -0,0 +1,85 @@
+package ru.netology.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class StorageFootprint {
+
+    private static final String[] TABLES = {"payment_entity", "credit_request_entity", "order_entity"};
+
+    @SneakyThrows
+    public static List<TableSize> measure() {
+        try (var conn = SQLHelper.getConn()) {
+            var product = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            if (product.contains("h2")) {
+                // an in-memory H2 database has no on-disk footprint to compare
+                return List.of();
+            }
+            var postgres = product.contains("postgres");
+            if (!postgres) {
+                refreshMysqlStatistics(conn);
+            }
+            var sizes = new ArrayList<TableSize>();
+            for (String table : TABLES) {
+                var rows = count(conn, table);
+                var bytes = postgres ? postgresBytes(conn, table) : mysqlBytes(conn, table);
+                sizes.add(new TableSize(table, rows, bytes, rows == 0 ? 0 : (double) bytes / rows));
+            }
+            return sizes;
+        }
+    }
+
+    private static void refreshMysqlStatistics(Connection conn) throws SQLException {
+        try (var statement = conn.createStatement()) {
+            // information_schema caches table sizes for a day by default on MySQL 8
+            statement.execute("SET SESSION information_schema_stats_expiry = 0");
+            statement.execute("ANALYZE TABLE " + String.join(", ", TABLES));
+        }
+    }
+
+    private static long count(Connection conn, String table) throws SQLException {
+        try (var statement = conn.createStatement();
+             var rs = statement.executeQuery("SELECT count(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long postgresBytes(Connection conn, String table) throws SQLException {
+        try (var statement = conn.prepareStatement("SELECT pg_total_relation_size(?::regclass)")) {
+            statement.setString(1, table);
+            try (var rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long mysqlBytes(Connection conn, String table) throws SQLException {
+        try (var statement = conn.prepareStatement("SELECT data_length + index_length FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name = ?")) {
+            statement.setString(1, table);
+            try (var rs = statement.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableSize {
+        private String table;
+        private long rows;
+        private long bytes;
+        private double bytesPerRow;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.netology.extensions;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.SelenideConfig;
+import com.codeborne.selenide.SelenideDriver;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BrowserPool {
+
+    private static final int size = Integer.parseInt(System.getProperty("selenide.browsers", "2"));
+    private static final long borrowTimeoutSeconds = Long.parseLong(System.getProperty("selenide.browserWait", "300"));
+    private static final BlockingQueue<SelenideDriver> idle = new LinkedBlockingQueue<>();
+    private static final Queue<SelenideDriver> all = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger created = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserPool::quitAll, "browser-pool-shutdown"));
+    }
+
+    private BrowserPool() {
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    public static SelenideDriver borrow() throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(borrowTimeoutSeconds);
+        while (true) {
+            var driver = idle.poll();
+            if (driver != null) {
+                return driver;
+            }
+            if (created.incrementAndGet() <= size) {
+                return startInSlot();
+            }
+            created.decrementAndGet();
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("No browser was released within " + borrowTimeoutSeconds
+                        + " s, all " + size + " are still borrowed");
+            }
+            // a dropped browser frees its slot without passing through the idle queue, so the slots are rechecked
+            driver = idle.poll(Math.min(remaining, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+            if (driver != null) {
+                return driver;
+            }
+        }
+    }
+
+    public static void release(SelenideDriver driver) {
+        try {
+            reset(driver);
+            idle.add(driver);
+        } catch (RuntimeException exception) {
+            // a browser that cannot be reset is dropped and replaced on the next borrow
+            all.remove(driver);
+            try {
+                driver.close();
+            } catch (RuntimeException ignored) {
+                // the session is already gone
+            } finally {
+                created.decrementAndGet();
+            }
+        }
+    }
+
+    private static SelenideDriver startInSlot() {
+        try {
+            return start();
+        } catch (RuntimeException | Error exception) {
+            // a browser that failed to start gives its slot back, otherwise the pool shrinks for the rest of the run
+            created.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    private static SelenideDriver start() {
+        BrowserProfile.applyCurrent();
+        var config = new SelenideConfig()
+                .browser(Configuration.browser)
+                .headless(Configuration.headless)
+                .browserSize(Configuration.browserSize)
+                .pageLoadStrategy(Configuration.pageLoadStrategy)
+                .browserCapabilities(Configuration.browserCapabilities)
+                .timeout(Configuration.timeout);
+        var driver = new SelenideDriver(config);
+        try {
+            driver.getAndCheckWebDriver();
+        } catch (RuntimeException exception) {
+            driver.close();
+            throw exception;
+        }
+        all.add(driver);
+        return driver;
+    }
+
+    private static void reset(SelenideDriver driver) {
+        var webDriver = driver.getWebDriver();
+        var handles = webDriver.getWindowHandles();
+        if (handles.isEmpty()) {
+            throw new IllegalStateException("The test closed every window of the browser");
+        }
+        var first = handles.iterator().next();
+        for (String handle : handles) {
+            if (!handle.equals(first)) {
+                webDriver.switchTo().window(handle).close();
+            }
+        }
+        webDriver.switchTo().window(first);
+        if (webDriver.getCurrentUrl().startsWith("http")) {
+            driver.executeJavaScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        }
+        driver.clearCookies();
+        driver.open("about:blank");
+    }
+
+    private static void quitAll() {
+        SelenideDriver driver;
+        while ((driver = all.poll()) != null) {
+            driver.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.netology.extensions;
+
+import com.codeborne.selenide.SelenideDriver;
+import com.codeborne.selenide.WebDriverRunner;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.selenide.AllureSelenide;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstanceFactoryContext;
+import org.junit.jupiter.api.extension.TestInstancePreConstructCallback;
+import ru.netology.perf.LatencyRecorder;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+
+public class BrowserPoolExtension implements TestInstancePreConstructCallback, AfterEachCallback {
+
+    private static final LatencyRecorder waits = new LatencyRecorder();
+    private static final long runStarted = System.nanoTime();
+    // the pre-construct callback only sees the class context, so everything per test is tracked per test thread
+    private static final ThreadLocal<Lease> leases = new ThreadLocal<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserPoolExtension::writeReport, "browser-wait-report"));
+    }
+
+    @Override
+    public void preConstructTestInstance(TestInstanceFactoryContext factoryContext, ExtensionContext context)
+            throws InterruptedException {
+        // UI tests open the page in a field initializer, so the browser has to be bound before construction
+        releaseLease();
+        var started = System.nanoTime();
+        var driver = BrowserPool.borrow();
+        var waited = System.nanoTime() - started;
+        waits.recordSuccess(waited);
+        leases.set(new Lease(driver, started, waited / 1_000_000));
+
+        WebDriverRunner.setWebDriver(driver.getWebDriver());
+        // Selenide listeners are thread-local, the @BeforeAll registration does not reach worker threads
+        SelenideLogger.addListener("allure", new AllureSelenide());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var lease = releaseLease();
+        if (lease == null) {
+            return;
+        }
+        ProfileTimings.record(context.getUniqueId(), System.nanoTime() - lease.started);
+        Allure.addAttachment("Browser pool wait", "text/plain", lease.waitMillis + " ms");
+    }
+
+    private static Lease releaseLease() {
+        // also covers a test whose construction failed before afterEach could run
+        var lease = leases.get();
+        if (lease != null) {
+            leases.remove();
+            BrowserPool.release(lease.driver);
+        }
+        return lease;
+    }
+
+    private static void writeReport() {
+        if (waits.count() == 0) {
+            return;
+        }
+        var report = waits.report(System.nanoTime() - runStarted);
+        System.out.printf("Browser pool (%d browsers) wait: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                BrowserPool.size(), report.getP50Millis(), report.getP99Millis(), report.getMaxMillis());
+        Reports.write(Path.of("build", "browser-pool", "waits.json"), report);
+    }
+
+    @AllArgsConstructor
+    private static class Lease {
+        private final SelenideDriver driver;
+        private final long started;
+        private final long waitMillis;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.netology.extensions;
+
+import com.codeborne.selenide.Configuration;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.Locale;
+import java.util.Map;
+
+public enum BrowserProfile {
+    DEFAULT,
+    PERFORMANCE;
+
+    private static final String BLOCKED_HOSTS = String.join(", ",
+            "MAP fonts.googleapis.com ~NOTFOUND",
+            "MAP fonts.gstatic.com ~NOTFOUND",
+            "MAP *.google-analytics.com ~NOTFOUND",
+            "MAP *.googletagmanager.com ~NOTFOUND",
+            "MAP *.doubleclick.net ~NOTFOUND",
+            "MAP mc.yandex.ru ~NOTFOUND");
+
+    private static final BrowserProfile current =
+            valueOf(System.getProperty("selenide.profile", "default").toUpperCase(Locale.ROOT));
+    private static boolean applied;
+
+    public static BrowserProfile current() {
+        return current;
+    }
+
+    public static synchronized void applyCurrent() {
+        if (!applied) {
+            current.apply();
+            applied = true;
+        }
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    private void apply() {
+        if (this == DEFAULT) {
+            return;
+        }
+        Configuration.headless = true;
+        Configuration.browserSize = "1024x768";
+        Configuration.pageLoadStrategy = "eager";
+
+        var browser = Configuration.browser.toLowerCase(Locale.ROOT);
+        if (browser.equals("chrome")) {
+            Configuration.browserCapabilities = trimmedChrome();
+        } else if (browser.equals("firefox")) {
+            Configuration.browserCapabilities = trimmedFirefox();
+        } else {
+            throw new IllegalStateException("selenide.profile=" + key() + " supports chrome and firefox, not "
+                    + Configuration.browser);
+        }
+    }
+
+    private static ChromeOptions trimmedChrome() {
+        var options = new ChromeOptions();
+        options.addArguments(
+                "--disable-extensions",
+                "--disable-gpu",
+                "--blink-settings=imagesEnabled=false",
+                "--host-resolver-rules=" + BLOCKED_HOSTS);
+        options.setExperimentalOption("prefs", Map.of(
+                "profile.managed_default_content_settings.images", 2));
+        return options;
+    }
+
+    private static FirefoxOptions trimmedFirefox() {
+        // Firefox has no host resolver rules, so only images and remote fonts are cut
+        var options = new FirefoxOptions();
+        options.addPreference("permissions.default.image", 2);
+        options.addPreference("gfx.downloadable_fonts.enabled", false);
+        return options;
+    }
+}
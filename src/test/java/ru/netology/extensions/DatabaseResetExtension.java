@@ -0,0 +1,42 @@
+package ru.netology.extensions;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.data.DatabaseReset;
+import ru.netology.data.SQLHelper;
+
+public class DatabaseResetExtension implements BeforeAllCallback, AfterEachCallback {
+
+    private static final boolean enabled = System.getProperty("db.reset") != null;
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DatabaseResetExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!enabled) {
+            return;
+        }
+        // the shared database lock is only ever taken for READ, so a table-wide reset would wipe rows
+        // that a concurrent test has written but not yet checked
+        var parallel = context.getConfigurationParameter("junit.jupiter.execution.parallel.enabled")
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+        if (parallel && DatabaseReset.strategy() != DatabaseReset.Strategy.TAGGED) {
+            throw new ExtensionConfigurationException("db.reset=" + System.getProperty("db.reset")
+                    + " clears whole tables and cannot run in parallel mode, use db.reset=tagged");
+        }
+        // the baseline is captured once, before any test has written to the database
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("prepared", key -> {
+            SQLHelper.prepareDatabaseReset();
+            return true;
+        });
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (enabled) {
+            SQLHelper.cleanDatabase();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.netology.extensions;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Properties;
+
+public class DurationOrderer implements ClassOrderer, MethodOrderer {
+
+    private static final Properties durations = load();
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        context.getClassDescriptors().sort(
+                Comparator.comparingDouble((ClassDescriptor descriptor) -> durationOf(descriptor.getTestClass().getName()))
+                        .reversed());
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        context.getMethodDescriptors().sort(
+                Comparator.comparingDouble((MethodDescriptor descriptor) -> durationOf(
+                        descriptor.getMethod().getDeclaringClass().getName() + "#" + descriptor.getMethod().getName()))
+                        .reversed());
+    }
+
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        // the inherited default forces SAME_THREAD on every class using this orderer, which would undo -Djunit.parallel
+        return Optional.empty();
+    }
+
+    private static double durationOf(String key) {
+        // never measured tests go first, they may well be the slowest ones
+        return Double.parseDouble(durations.getProperty(key, String.valueOf(Double.MAX_VALUE)));
+    }
+
+    private static Properties load() {
+        var properties = new Properties();
+        var file = System.getProperty("test.durations");
+        if (file == null) {
+            return properties;
+        }
+        try (var reader = new FileReader(file)) {
+            properties.load(reader);
+        } catch (IOException exception) {
+            // no history yet, everything keeps the same (unknown) duration
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.netology.extensions;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.data.EmbeddedDatabase;
+
+public class EmbeddedDatabaseExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(EmbeddedDatabaseExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (System.getProperty("db.embedded") == null) {
+            return;
+        }
+        // must run before anything touches SQLHelper or launches the application, both read db.url once
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("database", key -> {
+            var database = EmbeddedDatabase.startIfConfigured();
+            return (ExtensionContext.Store.CloseableResource) database::close;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package ru.netology.extensions;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestInstanceFactoryContext;
+import org.junit.jupiter.api.extension.TestInstancePreConstructCallback;
+import ru.netology.perf.PhaseTimer;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PhaseTimingExtension implements TestInstancePreConstructCallback, AfterEachCallback, AfterAllCallback {
+
+    // the pre-construct callback only sees the class context, so the start time is kept per test thread
+    private static final ThreadLocal<Long> started = new ThreadLocal<>();
+    private static final Map<String, Map<String, Map<String, Double>>> byClass = new ConcurrentHashMap<>();
+
+    @Override
+    public void preConstructTestInstance(TestInstanceFactoryContext factoryContext, ExtensionContext context) {
+        // started before construction, UI tests load their first page in a field initializer
+        if (PhaseTimer.isEnabled()) {
+            PhaseTimer.reset();
+            started.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var testStarted = started.get();
+        if (testStarted == null) {
+            return;
+        }
+        started.remove();
+        var total = System.nanoTime() - testStarted;
+        var phases = PhaseTimer.snapshot();
+        var breakdown = new LinkedHashMap<String, Double>();
+        var accounted = 0L;
+        for (PhaseTimer.Phase phase : PhaseTimer.Phase.values()) {
+            breakdown.put(phase.name().toLowerCase(), phases[phase.ordinal()] / 1e6);
+            accounted += phases[phase.ordinal()];
+        }
+        breakdown.put("other", Math.max(0, total - accounted) / 1e6);
+        breakdown.put("total", total / 1e6);
+
+        Allure.addAttachment("Phase timings", "application/json", Reports.toJson(breakdown), ".json");
+        byClass.computeIfAbsent(context.getRequiredTestClass().getName(), key -> new ConcurrentHashMap<>())
+                .put(context.getUniqueId(), breakdown);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        var className = context.getRequiredTestClass().getName();
+        var tests = byClass.remove(className);
+        if (tests == null) {
+            return;
+        }
+        var totals = new LinkedHashMap<String, Double>();
+        tests.values().forEach(breakdown -> breakdown.forEach((phase, millis) -> totals.merge(phase, millis, Double::sum)));
+        var report = new LinkedHashMap<String, Object>();
+        report.put("totals", totals);
+        report.put("tests", new TreeMap<>(tests));
+        Reports.write(Path.of("build", "phase-timings", className + ".json"), report);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.netology.extensions;
+
+import ru.netology.perf.Reports;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ProfileTimings {
+
+    private static final Path directory = Path.of("build", "browser-profile");
+    private static final Map<String, Double> millis = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ProfileTimings::writeReport, "browser-profile-report"));
+    }
+
+    private ProfileTimings() {
+    }
+
+    static void record(String test, long elapsedNanos) {
+        millis.put(test, elapsedNanos / 1e6);
+    }
+
+    private static void writeReport() {
+        if (millis.isEmpty()) {
+            return;
+        }
+        var profile = BrowserProfile.current();
+        var current = new TreeMap<>(millis);
+        Reports.write(directory.resolve(profile.key() + ".json"), current);
+
+        var other = profile == BrowserProfile.DEFAULT ? BrowserProfile.PERFORMANCE : BrowserProfile.DEFAULT;
+        var otherFile = directory.resolve(other.key() + ".json");
+        if (!Files.exists(otherFile)) {
+            return;
+        }
+        var stored = toMillis(Reports.read(otherFile, Map.class));
+        var defaults = profile == BrowserProfile.DEFAULT ? current : stored;
+        var performance = profile == BrowserProfile.DEFAULT ? stored : current;
+        var comparison = new TreeMap<String, Map<String, Double>>();
+        double defaultTotal = 0;
+        double performanceTotal = 0;
+        for (var entry : defaults.entrySet()) {
+            var quick = performance.get(entry.getKey());
+            if (quick == null) {
+                continue;
+            }
+            var slow = entry.getValue();
+            defaultTotal += slow;
+            performanceTotal += quick;
+            comparison.put(entry.getKey(), Map.of("defaultMillis", slow, "performanceMillis", quick,
+                    "deltaMillis", quick - slow));
+        }
+        System.out.printf("Browser profiles over %d tests: default %.0f ms, performance %.0f ms (%+.0f ms)%n",
+                comparison.size(), defaultTotal, performanceTotal, performanceTotal - defaultTotal);
+        Reports.write(directory.resolve("comparison.json"), comparison);
+    }
+
+    private static Map<String, Double> toMillis(Map<?, ?> stored) {
+        var result = new TreeMap<String, Double>();
+        stored.forEach((test, value) -> result.put(String.valueOf(test), ((Number) value).doubleValue()));
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.netology.extensions;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import ru.netology.pages.WaitPolicy;
+import ru.netology.perf.Reports;
+
+public class WaitTelemetryExtension implements AfterEachCallback {
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var observations = WaitPolicy.drainTestObservations();
+        if (observations.isEmpty()) {
+            return;
+        }
+        Allure.addAttachment("Waits in this test", "application/json", Reports.toJson(observations), ".json");
+        // only this test's waits, the whole run's distribution goes to build/wait-distribution.json
+        Allure.addAttachment("Wait distribution", "application/json",
+                Reports.toJson(WaitPolicy.distributionOf(observations)), ".json");
+    }
+}
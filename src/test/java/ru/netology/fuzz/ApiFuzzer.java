@@ -0,0 +1,187 @@
+package ru.netology.fuzz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import ru.netology.data.ApiClient;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.FastDataGenerator;
+import ru.netology.data.SQLHelper;
+import ru.netology.perf.Reports;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ApiFuzzer {
+
+    private static final String PAY = "/api/v1/pay";
+    private static final String CREDIT = "/api/v1/credit";
+
+    private final String baseUri = System.getProperty("fuzz.baseUri", "http://localhost:8080");
+    private final long cases = Long.getLong("fuzz.cases", 20_000);
+    private final int concurrency = Integer.getInteger("fuzz.concurrency", 64);
+    private final double creditShare = Double.parseDouble(System.getProperty("fuzz.creditShare", "0.5"));
+    private final int examples = Integer.getInteger("fuzz.examples", 5);
+    private final long seed = Long.getLong("fuzz.seed", 42);
+
+    private final ApiClient client = new ApiClient(baseUri);
+    private final CardFuzzer fuzzer = new CardFuzzer(seed);
+    // row lookups run off the HTTP client threads, sized like the SQLHelper pool they borrow from
+    private final ExecutorService verifier = Executors.newFixedThreadPool(Integer.getInteger("db.pool.size", 10));
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Map<String, Finding> findings = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) {
+        var report = new ApiFuzzer().run();
+        Reports.write(Path.of(System.getProperty("fuzz.report", "build/fuzz/report.json")), report);
+        System.out.printf("%d cases at %.0f per minute, %d findings%n",
+                report.getCases(), report.getCasesPerMinute(), report.getFindings().size());
+        if (!report.getFindings().isEmpty() && !"false".equals(System.getProperty("fuzz.failOnFindings"))) {
+            throw new IllegalStateException("Fuzzing found " + report.getFindings().keySet() + ", see the report");
+        }
+    }
+
+    @SneakyThrows
+    public FuzzReport run() {
+        var inFlight = new Semaphore(concurrency);
+        var started = System.nanoTime();
+        for (long index = 0; index < cases; index++) {
+            inFlight.acquire();
+            var fuzzCase = fuzzer.caseAt(index);
+            var credit = FastDataGenerator.mix(seed + index) >>> 11 < creditShare * (1L << 53);
+            var endpoint = credit ? CREDIT : PAY;
+            var future = credit ? client.creditAsync(fuzzCase.getCardInfo()) : client.payAsync(fuzzCase.getCardInfo());
+            future.handle((response, error) -> check(endpoint, fuzzCase, response, error))
+                    .thenCompose(verification -> verification)
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            report("harnessError", endpoint, fuzzCase, -1, String.valueOf(error));
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+        var elapsed = System.nanoTime() - started;
+        verifier.shutdown();
+
+        var counts = new TreeMap<String, Long>();
+        outcomes.forEach((key, count) -> counts.put(key, count.sum()));
+        return new FuzzReport(baseUri, seed, cases, cases / (elapsed / 6e10), counts, new TreeMap<>(findings));
+    }
+
+    private CompletableFuture<Void> check(String endpoint, CardFuzzer.FuzzCase fuzzCase,
+                                          HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            count(fuzzCase.getCategory() + " transportError");
+            report("transportError", endpoint, fuzzCase, -1, String.valueOf(error));
+            return CompletableFuture.completedFuture(null);
+        }
+        var status = response.statusCode();
+        count(fuzzCase.getCategory() + " " + status);
+        if (status >= 500) {
+            report("serverError", endpoint, fuzzCase, status, response.body());
+        }
+        if (status == 200 && fuzzCase.getExpectation() == CardFuzzer.Expectation.REJECTED) {
+            report("acceptedInvalid", endpoint, fuzzCase, status, response.body());
+        }
+        if (status != 200 && fuzzCase.getExpectation() == CardFuzzer.Expectation.ACCEPTED) {
+            report("rejectedValid", endpoint, fuzzCase, status, response.body());
+        }
+        if (status != 200) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> verifyRow(endpoint, fuzzCase, response), verifier);
+    }
+
+    private void verifyRow(String endpoint, CardFuzzer.FuzzCase fuzzCase, HttpResponse<String> response) {
+        var parsed = ApiClient.parse(response);
+        if (fuzzCase.getExpectedStatus() != null && !fuzzCase.getExpectedStatus().equals(parsed.getStatus())) {
+            report("wrongStatus", endpoint, fuzzCase, 200, response.body());
+        }
+        var stored = endpoint.equals(CREDIT)
+                ? statusOf(SQLHelper.getCreditCardData(parsed.getId()))
+                : statusOf(SQLHelper.getPaymentCardData(parsed.getId()));
+        if (stored == null) {
+            report("missingRow", endpoint, fuzzCase, 200, response.body());
+            return;
+        }
+        if (!stored.equals(parsed.getStatus())) {
+            report("rowStatusMismatch", endpoint, fuzzCase, 200, response.body() + " stored " + stored);
+        }
+        // scoped to this request's id, so concurrent writers to the same tables do not count
+        var rows = endpoint.equals(CREDIT)
+                ? SQLHelper.countCredits(parsed.getId())
+                : SQLHelper.countPayments(parsed.getId());
+        if (rows != 1) {
+            report("rowCount", endpoint, fuzzCase, 200, response.body() + " stored " + rows + " rows");
+        }
+    }
+
+    private void count(String key) {
+        outcomes.computeIfAbsent(key, ignored -> new LongAdder()).increment();
+    }
+
+    private void report(String kind, String endpoint, CardFuzzer.FuzzCase fuzzCase, int status, String body) {
+        findings.computeIfAbsent(kind + " " + fuzzCase.getCategory(), key -> new Finding(0, new ArrayList<>()))
+                .add(examples, new Example(endpoint, fuzzCase.getCategory(), fuzzCase.getIndex(), status,
+                        fuzzCase.getCardInfo(), body));
+    }
+
+    private static String statusOf(DataGenerator.PaymentCardData row) {
+        return row == null ? null : row.getStatus();
+    }
+
+    private static String statusOf(DataGenerator.CreditCardData row) {
+        return row == null ? null : row.getStatus();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Finding {
+        private long count;
+        private List<Example> examples;
+
+        synchronized void add(int limit, Example example) {
+            count++;
+            if (examples.size() < limit) {
+                examples.add(example);
+            }
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Example {
+        private String endpoint;
+        private String category;
+        private long index;
+        private int httpStatus;
+        private DataGenerator.CardInfo cardInfo;
+        private String response;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FuzzReport {
+        private String baseUri;
+        private long seed;
+        private long cases;
+        private double casesPerMinute;
+        private Map<String, Long> outcomes;
+        private Map<String, Finding> findings;
+    }
+}
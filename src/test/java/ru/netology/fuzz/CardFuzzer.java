@@ -0,0 +1,191 @@
+package ru.netology.fuzz;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.FastDataGenerator;
+
+import java.time.LocalDate;
+
+public class CardFuzzer {
+
+    public enum Expectation { ACCEPTED, REJECTED, EITHER }
+
+    private static final String[] UNICODE_HOLDERS = {
+            "Иванов Иван", "李小龙", "José Álvarez", "Zoë Saldaña", "Óscar Wilde", "محمد علي",
+            "😀 Smile", "Ivan\u200BIvanov", "IVAN\u0000IVANOV", "Ｉｖａｎ Ｉｖａｎｏｖ", "İSMAİL ŞAHİN"};
+    private static final String[] MALFORMED_NUMBERS = {
+            "", " ", "4444 4444 4444 444", "4444 4444 4444 44411", "4444-4444-4444-4441", "abcd efgh ijkl mnop",
+            "４４４４ ４４４４ ４４４４ ４４４１", "0000 0000 0000 0000", "-1", "4444 4444 4444 4441\n",
+            "9999999999999999999999999999999999999999"};
+    private static final String[] MALFORMED_MONTHS = {"00", "13", "99", "", "ab", "-1", "1.", " 01", "０１", "001"};
+    private static final String[] MALFORMED_YEARS = {"", "ab", "-1", "2.5", "０"};
+    private static final String[] MALFORMED_CVCS = {"", "1", "12", "1234", "abc", "1 2", "９９９", "-12", "12\t"};
+    // Cyrillic, CJK, combining marks and emoji outside the basic plane
+    private static final int[] CODE_POINT_RANGES = {0x0410, 0x4E00, 0x0300, 0x1F600};
+    private static final String HOLDER_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz -";
+
+    private final long seed;
+    private final FastDataGenerator generator;
+    private final int currentMonth;
+    private final int currentYear;
+
+    public CardFuzzer(long seed) {
+        this.seed = seed;
+        this.generator = new FastDataGenerator(seed);
+        var today = LocalDate.now();
+        this.currentMonth = today.getMonthValue();
+        this.currentYear = today.getYear() % 100;
+    }
+
+    public FuzzCase caseAt(long index) {
+        // every case is derived from (seed, index) only, so a finding can be replayed from its index
+        var random = FastDataGenerator.mix(seed ^ FastDataGenerator.mix(index));
+        var pick = (int) ((random >>> 48) % 8);
+        var value = random & 0xFFFFFFFFFFFFL;
+        switch (pick) {
+            case 0:
+                return validCard(index, value, true);
+            case 1:
+                return validCard(index, value, false);
+            case 2:
+                return monthCase(index, value);
+            case 3:
+                return yearCase(index, value);
+            case 4:
+                return holderLengthCase(index, value);
+            case 5:
+                return withHolder(index, "holderUnicode", unicodeHolder(value));
+            case 6:
+                return numberCase(index, value);
+            default:
+                return cvcCase(index, value);
+        }
+    }
+
+    private FuzzCase validCard(long index, long value, boolean approved) {
+        var card = approved ? generator.approvedCard(index) : generator.declinedCard(index);
+        setExpiry(card, (int) (value % 61));
+        return new FuzzCase(index, approved ? "validApproved" : "validDeclined", Expectation.ACCEPTED,
+                approved ? "APPROVED" : "DECLINED", card);
+    }
+
+    private FuzzCase monthCase(long index, long value) {
+        var card = generator.approvedCard(index);
+        if (value % 4 == 0) {
+            // a single digit month is padded by the form, the API may go either way
+            card.setMonth(String.valueOf(1 + value / 4 % 9));
+            card.setYear(format(currentYear + 1));
+            return new FuzzCase(index, "monthSingleDigit", Expectation.EITHER, null, card);
+        }
+        card.setMonth(MALFORMED_MONTHS[(int) (value / 4 % MALFORMED_MONTHS.length)]);
+        return new FuzzCase(index, "monthMalformed", Expectation.REJECTED, null, card);
+    }
+
+    private FuzzCase yearCase(long index, long value) {
+        var card = generator.approvedCard(index);
+        switch ((int) (value % 4)) {
+            case 0:
+                // one month past the expiry window on either side
+                setExpiry(card, value / 4 % 2 == 0 ? -1 : 61);
+                return new FuzzCase(index, "expiryBoundary", Expectation.REJECTED, null, card);
+            case 1:
+                setExpiry(card, -(int) (12 + value / 4 % 120));
+                return new FuzzCase(index, "expired", Expectation.REJECTED, null, card);
+            case 2:
+                setExpiry(card, (int) (72 + value / 4 % 600));
+                return new FuzzCase(index, "tooFarAhead", Expectation.REJECTED, null, card);
+            default:
+                card.setYear(MALFORMED_YEARS[(int) (value / 4 % MALFORMED_YEARS.length)]);
+                return new FuzzCase(index, "yearMalformed", Expectation.REJECTED, null, card);
+        }
+    }
+
+    private FuzzCase holderLengthCase(long index, long value) {
+        // lengths cluster around the 2..21 limits, with an occasional very long name
+        var length = value % 10 == 0 ? (int) (22 + value / 10 % 1000) : (int) (value / 10 % 24);
+        var holder = new StringBuilder(length);
+        var bits = FastDataGenerator.mix(value);
+        for (int i = 0; i < length; i++) {
+            // starting with a letter keeps every name of valid length a valid name
+            var alphabet = i == 0 ? 52L : HOLDER_ALPHABET.length();
+            holder.append(HOLDER_ALPHABET.charAt((int) Math.floorMod(bits, alphabet)));
+            bits = FastDataGenerator.mix(bits);
+        }
+        var card = generator.approvedCard(index);
+        card.setHolder(holder.toString());
+        var valid = length >= 2 && length <= 21;
+        return new FuzzCase(index, "holderLength", valid ? Expectation.ACCEPTED : Expectation.REJECTED,
+                valid ? "APPROVED" : null, card);
+    }
+
+    private String unicodeHolder(long value) {
+        if (value % 2 == 0) {
+            return UNICODE_HOLDERS[(int) (value / 2 % UNICODE_HOLDERS.length)];
+        }
+        var holder = new StringBuilder();
+        var bits = FastDataGenerator.mix(value);
+        for (int i = 0; i < 2 + value / 2 % 20; i++) {
+            var start = CODE_POINT_RANGES[(int) Math.floorMod(bits, (long) CODE_POINT_RANGES.length)];
+            holder.appendCodePoint(start + (int) Math.floorMod(bits >>> 8, 32L));
+            bits = FastDataGenerator.mix(bits);
+        }
+        return holder.toString();
+    }
+
+    private FuzzCase withHolder(long index, String category, String holder) {
+        var card = generator.approvedCard(index);
+        card.setHolder(holder);
+        return new FuzzCase(index, category, Expectation.REJECTED, null, card);
+    }
+
+    private FuzzCase numberCase(long index, long value) {
+        String number;
+        switch ((int) (value % 3)) {
+            case 0:
+                // well-formed but unknown to the gate
+                number = FastDataGenerator.luhnCardNumber(value / 3);
+                break;
+            case 1:
+                var valid = FastDataGenerator.luhnCardNumber(value / 3).toCharArray();
+                valid[valid.length - 1] = (char) ('0' + (valid[valid.length - 1] - '0' + 1) % 10);
+                number = new String(valid);
+                break;
+            default:
+                number = MALFORMED_NUMBERS[(int) (value / 3 % MALFORMED_NUMBERS.length)];
+        }
+        return new FuzzCase(index, "number", Expectation.REJECTED, null, generator.cardWithNumber(index, number));
+    }
+
+    private FuzzCase cvcCase(long index, long value) {
+        var card = generator.approvedCard(index);
+        if (value % 5 == 0) {
+            card.setCvc("000");
+            return new FuzzCase(index, "cvcZero", Expectation.EITHER, null, card);
+        }
+        card.setCvc(MALFORMED_CVCS[(int) (value / 5 % MALFORMED_CVCS.length)]);
+        return new FuzzCase(index, "cvcMalformed", Expectation.REJECTED, null, card);
+    }
+
+    private void setExpiry(DataGenerator.CardInfo card, int monthsAhead) {
+        var months = currentYear * 12 + currentMonth - 1 + monthsAhead;
+        card.setMonth(format(Math.floorMod(months, 12) + 1));
+        card.setYear(format(Math.floorMod(Math.floorDiv(months, 12), 100)));
+    }
+
+    private static String format(int value) {
+        return String.format("%02d", value);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FuzzCase {
+        private long index;
+        private String category;
+        private Expectation expectation;
+        private String expectedStatus;
+        private DataGenerator.CardInfo cardInfo;
+    }
+}
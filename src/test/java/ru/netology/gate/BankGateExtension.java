@@ -0,0 +1,25 @@
+package ru.netology.gate;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+public class BankGateExtension implements BeforeAllCallback {
+
+    private static final boolean enabled = Boolean.getBoolean("gate.stub");
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(BankGateExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!enabled) {
+            return;
+        }
+        // one gate for the whole run, stopped when the root context closes
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("gate", key -> {
+            var started = System.nanoTime();
+            var stub = BankGateStub.fromSystemProperties().start();
+            System.out.printf("Bank gate stub started on port %d in %.1f ms%n",
+                    stub.getPort(), (System.nanoTime() - started) / 1e6);
+            return (ExtensionContext.Store.CloseableResource) stub::close;
+        });
+    }
+}
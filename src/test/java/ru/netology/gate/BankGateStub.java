@@ -0,0 +1,112 @@
+package ru.netology.gate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class BankGateStub implements AutoCloseable {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, String> cards;
+    private final CardDataset dataset;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    @SneakyThrows
+    public BankGateStub(int port, Map<String, String> cards, CardDataset dataset) {
+        this.cards = cards;
+        this.dataset = dataset;
+        this.server = HttpServer.create(new InetSocketAddress(port), 256);
+        this.executor = Executors.newFixedThreadPool(
+                Integer.getInteger("gate.threads", Runtime.getRuntime().availableProcessors() * 2));
+        server.createContext("/payment", this::handle);
+        server.createContext("/credit", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) {
+        var stub = fromSystemProperties().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close, "bank-gate-stub-shutdown"));
+        System.out.println("Bank gate stub listening on port " + stub.getPort());
+    }
+
+    public static BankGateStub fromSystemProperties() {
+        var port = Integer.getInteger("gate.port", 9999);
+        var data = Path.of(System.getProperty("gate.data", "gate-simulator/data.json"));
+        var datasetFile = System.getProperty("gate.dataset");
+        var dataset = datasetFile == null ? null : new CardDataset(Path.of(datasetFile));
+        return new BankGateStub(port, loadCards(data), dataset);
+    }
+
+    @SneakyThrows
+    public static Map<String, String> loadCards(Path data) {
+        var cards = new HashMap<String, String>();
+        for (JsonNode card : mapper.readTree(Files.readAllBytes(data))) {
+            cards.put(card.get("number").asText(), card.get("status").asText());
+        }
+        return cards;
+    }
+
+    public BankGateStub start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String number;
+            try {
+                number = mapper.readTree(exchange.getRequestBody()).path("number").asText(null);
+            } catch (JsonProcessingException exception) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            var status = number == null ? null : statusOf(number);
+            if (status == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            var body = ("{\"id\":\"" + UUID.randomUUID() + "\",\"status\":\"" + status + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String statusOf(String number) {
+        var status = cards.get(number);
+        return status == null && dataset != null ? dataset.statusOf(number) : status;
+    }
+}
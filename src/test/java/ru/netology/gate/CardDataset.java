@@ -0,0 +1,96 @@
+package ru.netology.gate;
+
+import lombok.SneakyThrows;
+import ru.netology.data.FastDataGenerator;
+
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class CardDataset {
+
+    static final int MAGIC = 0x43415244;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final long MAX_ENTRIES = (Integer.MAX_VALUE - HEADER_BYTES) / Long.BYTES;
+
+    private final LongBuffer entries;
+    private final int size;
+
+    @SneakyThrows
+    public CardDataset(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                throw new IllegalArgumentException(file + " is not a card dataset");
+            }
+            var count = mapped.getLong();
+            if (count > MAX_ENTRIES || HEADER_BYTES + count * Long.BYTES != channel.size()) {
+                throw new IllegalArgumentException(file + " is truncated or too large: " + count + " entries");
+            }
+            // the mapping stays valid after the channel is closed and lives outside the heap
+            this.entries = mapped.position(HEADER_BYTES).slice().asLongBuffer();
+            this.size = (int) count;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String numberAt(int index) {
+        return FastDataGenerator.formatPan(entries.get(index) >>> 1);
+    }
+
+    public String statusAt(int index) {
+        return status(entries.get(index));
+    }
+
+    public String statusOf(String number) {
+        var pan = parsePan(number);
+        if (pan < 0) {
+            return null;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var entry = entries.get(middle);
+            var middlePan = entry >>> 1;
+            if (middlePan < pan) {
+                low = middle + 1;
+            } else if (middlePan > pan) {
+                high = middle - 1;
+            } else {
+                return status(entry);
+            }
+        }
+        return null;
+    }
+
+    static long encode(long pan, boolean approved) {
+        return pan << 1 | (approved ? 0 : 1);
+    }
+
+    private static String status(long entry) {
+        return (entry & 1) == 0 ? "APPROVED" : "DECLINED";
+    }
+
+    private static long parsePan(String number) {
+        long pan = 0;
+        int digits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            var c = number.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (c < '0' || c > '9' || ++digits > 16) {
+                return -1;
+            }
+            pan = pan * 10 + (c - '0');
+        }
+        return digits == 16 ? pan : -1;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.netology.gate;
+
+import lombok.SneakyThrows;
+import ru.netology.data.FastDataGenerator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class CardDatasetWriter {
+
+    private CardDatasetWriter() {
+    }
+
+    public static void main(String[] args) {
+        var file = Path.of(System.getProperty("gate.dataset", "build/gate/cards.bin"));
+        var count = Long.getLong("dataset.size", 10_000_000L);
+        var approvedShare = Double.parseDouble(System.getProperty("dataset.approvedShare", "0.5"));
+        var seed = Long.getLong("dataset.seed", 42L);
+        var started = System.nanoTime();
+        write(file, count, approvedShare, seed);
+        var seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Wrote %d cards to %s in %.1f s (%.0f cards/s)%n",
+                count, file.toAbsolutePath(), seconds, count / seconds);
+    }
+
+    @SneakyThrows
+    public static void write(Path file, long count, double approvedShare, long seed) {
+        if (count > CardDataset.MAX_ENTRIES) {
+            throw new IllegalArgumentException("At most " + CardDataset.MAX_ENTRIES + " cards fit into one dataset");
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.BIG_ENDIAN);
+            buffer.putInt(CardDataset.MAGIC).putInt(CardDataset.VERSION).putLong(count);
+            // accounts grow with the index, so the file comes out sorted without sorting anything in memory
+            var stride = FastDataGenerator.ACCOUNT_RANGE / Math.max(count, 1);
+            for (long i = 0; i < count; i++) {
+                var random = FastDataGenerator.mix(seed + i);
+                var account = i * stride + Math.floorMod(random, stride);
+                var approved = (random >>> 11) * 0x1.0p-53 < approvedShare;
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(CardDataset.encode(FastDataGenerator.luhnPan(account), approved));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    @SneakyThrows
+    private static void flush(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -3,6 +3,7 @@ package ru.netology.pages;
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.SelenideElement;
 import ru.netology.data.DataGenerator;
+import ru.netology.perf.PhaseTimer;
 
 import java.time.Duration;
 
@@ -40,60 +41,89 @@ public class CreditPage {
             "/following-sibling::span[@class='input__sub']");
 
     public CreditPage() {
-        heading.shouldBe(visible);
+        WaitPolicy.await("credit.heading", WaitPolicy.defaultTimeout(), timeout -> heading.shouldBe(visible, timeout));
     }
 
     public void insertValidCreditCardDataForBank(DataGenerator.CardInfo cardInfo) {
-        cardNumberField.setValue(cardInfo.getNumber());
-        monthField.setValue(cardInfo.getMonth());
-        yearField.setValue(cardInfo.getYear());
-        cardHolderField.setValue(cardInfo.getHolder());
-        cvcField.setValue(cardInfo.getCvc());
-        continueButton.click();
+        if (FormFiller.isFast()) {
+            insertValidCreditCardDataForBankFast(cardInfo);
+        } else {
+            insertValidCreditCardDataForBankByTyping(cardInfo);
+        }
+    }
+
+    public void insertValidCreditCardDataForBankByTyping(DataGenerator.CardInfo cardInfo) {
+        FormFiller.timed("typing", () -> {
+            cardNumberField.setValue(cardInfo.getNumber());
+            monthField.setValue(cardInfo.getMonth());
+            yearField.setValue(cardInfo.getYear());
+            cardHolderField.setValue(cardInfo.getHolder());
+            cvcField.setValue(cardInfo.getCvc());
+            continueButton.click();
+        });
+    }
+
+    public void insertValidCreditCardDataForBankFast(DataGenerator.CardInfo cardInfo) {
+        FormFiller.timed("fast", () -> {
+            FormFiller.fill(cardInfo);
+            continueButton.click();
+        });
     }
 
     public void clickContinueButton() {
-        continueButton.click();
+        PhaseTimer.run(PhaseTimer.Phase.UI, continueButton::click);
     }
 
     public void checkErrorMsgDeclineFromBank() {
-        errorMsgWithDecline.shouldBe(visible, Duration.ofSeconds(10));
+        WaitPolicy.await("credit.declined", Duration.ofSeconds(10), timeout -> errorMsgWithDecline.shouldBe(visible, timeout));
     }
 
     public void checkApprovedMsgFromBank() {
-        approvedMsg.shouldBe(visible, Duration.ofSeconds(10));
+        WaitPolicy.await("credit.approved", Duration.ofSeconds(10), timeout -> approvedMsg.shouldBe(visible, timeout));
     }
 
     public void checkWarningUnderCardNumberField(String warningText) {
-        warningCardNumberField.shouldBe(visible);
-        warningCardNumberField.shouldHave(text(warningText));
+        WaitPolicy.await("credit.warning.number", WaitPolicy.defaultTimeout(), timeout -> {
+            warningCardNumberField.shouldBe(visible, timeout);
+            warningCardNumberField.shouldHave(text(warningText), timeout);
+        });
     }
 
     public void checkWarningUnderMonthField(String warningText) {
-        warningMonthField.shouldBe(visible);
-        warningMonthField.shouldHave(text(warningText));
+        WaitPolicy.await("credit.warning.month", WaitPolicy.defaultTimeout(), timeout -> {
+            warningMonthField.shouldBe(visible, timeout);
+            warningMonthField.shouldHave(text(warningText), timeout);
+        });
     }
 
     public void checkWarningUnderYearField(String warningText) {
-        warningYearField.shouldBe(visible);
-        warningYearField.shouldHave(text(warningText));
+        WaitPolicy.await("credit.warning.year", WaitPolicy.defaultTimeout(), timeout -> {
+            warningYearField.shouldBe(visible, timeout);
+            warningYearField.shouldHave(text(warningText), timeout);
+        });
     }
 
     public void checkWarningUnderCardHolderField(String warningText) {
-        warningCardHolderField.shouldBe(visible);
-        warningCardHolderField.shouldHave(text(warningText));
+        WaitPolicy.await("credit.warning.holder", WaitPolicy.defaultTimeout(), timeout -> {
+            warningCardHolderField.shouldBe(visible, timeout);
+            warningCardHolderField.shouldHave(text(warningText), timeout);
+        });
     }
 
     public void checkWarningUnderCvcField(String warningText) {
-        warningCvcField.shouldBe(visible);
-        warningCvcField.shouldHave(text(warningText));
+        WaitPolicy.await("credit.warning.cvc", WaitPolicy.defaultTimeout(), timeout -> {
+            warningCvcField.shouldBe(visible, timeout);
+            warningCvcField.shouldHave(text(warningText), timeout);
+        });
     }
 
     public void notCheckWarningUnderAllFields() {
-        warningCardNumberField.shouldNotBe(visible);
-        warningMonthField.shouldNotBe(visible);
-        warningYearField.shouldNotBe(visible);
-        warningCardHolderField.shouldNotBe(visible);
-        warningCvcField.shouldNotBe(visible);
+        WaitPolicy.await("credit.noWarnings", WaitPolicy.defaultTimeout(), timeout -> {
+            warningCardNumberField.shouldNotBe(visible, timeout);
+            warningMonthField.shouldNotBe(visible, timeout);
+            warningYearField.shouldNotBe(visible, timeout);
+            warningCardHolderField.shouldNotBe(visible, timeout);
+            warningCvcField.shouldNotBe(visible, timeout);
+        });
     }
 }
@@ -2,6 +2,7 @@ package ru.netology.pages;
 
 import com.codeborne.selenide.Selenide;
 import com.codeborne.selenide.SelenideElement;
+import ru.netology.perf.PhaseTimer;
 
 import static com.codeborne.selenide.Condition.visible;
 
@@ -14,17 +15,21 @@ public class DashboardPage {
     private SelenideElement creditButton = Selenide.$x("//span[text()='Купить в кредит']");
 
     public DashboardPage() {
-        heading.shouldBe(visible);
+        WaitPolicy.await("dashboard.heading", WaitPolicy.defaultTimeout(), timeout -> heading.shouldBe(visible, timeout));
     }
 
 
     public PaymentPage paymentPage() {
-        paymentButton.click();
-        return new PaymentPage();
+        return PhaseTimer.time(PhaseTimer.Phase.UI, () -> {
+            paymentButton.click();
+            return new PaymentPage();
+        });
     }
 
     public CreditPage creditPage() {
-        creditButton.click();
-        return new CreditPage();
+        return PhaseTimer.time(PhaseTimer.Phase.UI, () -> {
+            creditButton.click();
+            return new CreditPage();
+        });
     }
 }
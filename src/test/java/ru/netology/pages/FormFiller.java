@@ -0,0 +1,69 @@
+package ru.netology.pages;
+
+import com.codeborne.selenide.Selenide;
+import ru.netology.data.DataGenerator;
+import ru.netology.perf.LatencyRecorder;
+import ru.netology.perf.PhaseTimer;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class FormFiller {
+
+    private static final boolean fast = "fast".equalsIgnoreCase(System.getProperty("ui.fill", "typing"));
+    private static final Map<String, LatencyRecorder> latency = new LinkedHashMap<>();
+    private static final long runStarted = System.nanoTime();
+
+    // React tracks input values through the prototype setter, so plain assignment would not reach the form state
+    private static final String FILL_SCRIPT = "var labels = ['Номер карты', 'Месяц', 'Год', 'Владелец', 'CVC/CVV'];\n" +
+            "var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;\n" +
+            "for (var i = 0; i < labels.length; i++) {\n" +
+            "  var input = document.evaluate(\"//span[text()='\" + labels[i] + \"']/following-sibling::span/input\",\n" +
+            "      document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "  if (!input) { throw new Error('Field not found: ' + labels[i]); }\n" +
+            "  input.focus();\n" +
+            "  setter.call(input, arguments[i]);\n" +
+            "  input.dispatchEvent(new Event('input', {bubbles: true}));\n" +
+            "  input.dispatchEvent(new Event('change', {bubbles: true}));\n" +
+            "  input.blur();\n" +
+            "}";
+
+    static {
+        latency.put("typing", new LatencyRecorder());
+        latency.put("fast", new LatencyRecorder());
+        Runtime.getRuntime().addShutdownHook(new Thread(FormFiller::writeReport, "form-fill-report"));
+    }
+
+    private FormFiller() {
+    }
+
+    static boolean isFast() {
+        return fast;
+    }
+
+    static void fill(DataGenerator.CardInfo cardInfo) {
+        Selenide.executeJavaScript(FILL_SCRIPT, cardInfo.getNumber(), cardInfo.getMonth(), cardInfo.getYear(),
+                cardInfo.getHolder(), cardInfo.getCvc());
+    }
+
+    static void timed(String mode, Runnable submission) {
+        var started = System.nanoTime();
+        PhaseTimer.run(PhaseTimer.Phase.UI, submission);
+        latency.get(mode).recordSuccess(System.nanoTime() - started);
+    }
+
+    private static void writeReport() {
+        var report = new LinkedHashMap<String, LatencyRecorder.LatencyReport>();
+        var elapsed = System.nanoTime() - runStarted;
+        latency.forEach((mode, recorder) -> {
+            if (recorder.count() > 0) {
+                report.put(mode, recorder.report(elapsed));
+            }
+        });
+        if (!report.isEmpty()) {
+            Reports.write(Path.of("build", "ui-fill", "submission-latency.json"), report);
+        }
+    }
+}
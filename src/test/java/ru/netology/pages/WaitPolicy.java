@@ -0,0 +1,178 @@
+package ru.netology.pages;
+
+import com.codeborne.selenide.Configuration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.netology.perf.LatencyRecorder;
+import ru.netology.perf.PhaseTimer;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class WaitPolicy {
+
+    private static final Path historyFile = Path.of(System.getProperty("waits.history", "build/wait-history.json"));
+    private static final double factor = Double.parseDouble(System.getProperty("waits.factor", "3"));
+    private static final long minMillis = Long.getLong("waits.min", 500L);
+    private static final long maxMillis = Long.getLong("waits.max", 30_000L);
+    private static final int minSamples = Integer.getInteger("waits.minSamples", 20);
+    private static final int historyLimit = Integer.getInteger("waits.historyLimit", 1000);
+
+    private static final Map<String, List<Long>> history = new ConcurrentHashMap<>();
+    private static final Map<String, Duration> timeouts = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyRecorder> observed = new ConcurrentHashMap<>();
+    private static final ThreadLocal<List<Observation>> testObservations = ThreadLocal.withInitial(ArrayList::new);
+    private static final long runStarted = System.nanoTime();
+
+    static {
+        Configuration.pollingInterval = Long.getLong("waits.polling", Configuration.pollingInterval);
+        loadHistory();
+        Runtime.getRuntime().addShutdownHook(new Thread(WaitPolicy::saveHistory, "wait-history"));
+    }
+
+    private WaitPolicy() {
+    }
+
+    static void await(String key, Duration defaultTimeout, Consumer<Duration> condition) {
+        PhaseTimer.run(PhaseTimer.Phase.UI, () -> observe(key, defaultTimeout, condition));
+    }
+
+    private static void observe(String key, Duration defaultTimeout, Consumer<Duration> condition) {
+        var timeout = timeouts.computeIfAbsent(key, k -> timeoutFor(k, defaultTimeout));
+        var started = System.nanoTime();
+        var satisfied = false;
+        try {
+            condition.accept(timeout);
+            satisfied = true;
+        } finally {
+            var elapsed = System.nanoTime() - started;
+            var recorder = observed.computeIfAbsent(key, k -> new LatencyRecorder());
+            // a timeout is kept as a sample too, otherwise a tightened timeout only ever sees fast samples
+            history.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(elapsed / 1_000_000);
+            if (satisfied) {
+                recorder.recordSuccess(elapsed);
+            } else {
+                recorder.recordError();
+                widen(key, timeout, defaultTimeout);
+            }
+            testObservations.get().add(new Observation(key, elapsed / 1e6, timeout.toMillis(), satisfied));
+        }
+    }
+
+    private static void widen(String key, Duration timeout, Duration defaultTimeout) {
+        var widened = Math.min(maxMillis, Math.max(defaultTimeout.toMillis(), timeout.toMillis() * 2));
+        timeouts.merge(key, Duration.ofMillis(widened),
+                (current, candidate) -> current.compareTo(candidate) >= 0 ? current : candidate);
+    }
+
+    static Duration defaultTimeout() {
+        return Duration.ofMillis(Configuration.timeout);
+    }
+
+    public static List<Observation> drainTestObservations() {
+        var observations = new ArrayList<>(testObservations.get());
+        testObservations.get().clear();
+        return observations;
+    }
+
+    public static Map<String, KeyReport> distribution() {
+        var report = new TreeMap<String, KeyReport>();
+        var elapsed = System.nanoTime() - runStarted;
+        observed.forEach((key, recorder) -> report.put(key,
+                new KeyReport(timeouts.get(key).toMillis(), recorder.report(elapsed))));
+        return report;
+    }
+
+    public static Map<String, KeyReport> distributionOf(List<Observation> observations) {
+        var recorders = new TreeMap<String, LatencyRecorder>();
+        var timeoutMillis = new TreeMap<String, Long>();
+        var waited = 0L;
+        for (Observation observation : observations) {
+            var recorder = recorders.computeIfAbsent(observation.getCondition(), k -> new LatencyRecorder());
+            var nanos = (long) (observation.getWaitedMillis() * 1_000_000);
+            if (observation.isSatisfied()) {
+                recorder.recordSuccess(nanos);
+            } else {
+                recorder.recordError();
+            }
+            timeoutMillis.put(observation.getCondition(), observation.getTimeoutMillis());
+            waited += nanos;
+        }
+        var report = new TreeMap<String, KeyReport>();
+        var elapsed = waited;
+        recorders.forEach((key, recorder) -> report.put(key,
+                new KeyReport(timeoutMillis.get(key), recorder.report(elapsed))));
+        return report;
+    }
+
+    private static Duration timeoutFor(String key, Duration defaultTimeout) {
+        var samples = history.get(key);
+        if (samples == null || samples.size() < minSamples) {
+            return defaultTimeout;
+        }
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        var p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        return Duration.ofMillis(Math.max(minMillis, Math.min(maxMillis, (long) (p99 * factor))));
+    }
+
+    private static void loadHistory() {
+        if (!Files.exists(historyFile)) {
+            return;
+        }
+        Reports.read(historyFile, Map.class).forEach((key, values) -> {
+            var samples = Collections.synchronizedList(new ArrayList<Long>());
+            for (Object value : (List<?>) values) {
+                samples.add(((Number) value).longValue());
+            }
+            history.put(String.valueOf(key), samples);
+        });
+    }
+
+    private static void saveHistory() {
+        if (observed.isEmpty()) {
+            return;
+        }
+        var trimmed = new TreeMap<String, List<Long>>();
+        history.forEach((key, samples) -> {
+            synchronized (samples) {
+                trimmed.put(key, new ArrayList<>(samples.subList(Math.max(0, samples.size() - historyLimit),
+                        samples.size())));
+            }
+        });
+        Reports.write(historyFile, trimmed);
+        Reports.write(historyFile.resolveSibling("wait-distribution.json"), distribution());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Observation {
+        private String condition;
+        private double waitedMillis;
+        private long timeoutMillis;
+        private boolean satisfied;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeyReport {
+        private long timeoutMillis;
+        private LatencyRecorder.LatencyReport observed;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.netology.perf;
+
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AppProfiler {
+
+    private static final String RECORDING = "harness";
+    private static final Path jcmd = Path.of(System.getProperty("java.home"), "bin", "jcmd");
+
+    private final String pid;
+    private final Path recording;
+
+    public AppProfiler(String pid, Path recording) {
+        this.pid = pid;
+        this.recording = recording.toAbsolutePath();
+    }
+
+    public static AppProfiler attach(Path recording) {
+        var pid = System.getProperty("profile.pid");
+        return new AppProfiler(pid != null ? pid : findPid(System.getProperty("profile.process", "aqa-shop.jar")),
+                recording);
+    }
+
+    public static String startupOption(Path recording) {
+        return "-XX:StartFlightRecording=name=startup,settings=profile,dumponexit=true,filename="
+                + recording.toAbsolutePath();
+    }
+
+    @SneakyThrows
+    public void start() {
+        Files.createDirectories(recording.getParent());
+        jcmd(pid, "JFR.start", "name=" + RECORDING, "settings=profile");
+    }
+
+    public Path stop() {
+        jcmd(pid, "JFR.dump", "name=" + RECORDING, "filename=" + recording);
+        jcmd(pid, "JFR.stop", "name=" + RECORDING);
+        return recording;
+    }
+
+    private static String findPid(String process) {
+        for (String line : jcmd("-l").split("\\R")) {
+            if (line.contains(process)) {
+                return line.substring(0, line.indexOf(' '));
+            }
+        }
+        throw new IllegalStateException("No running JVM matches '" + process + "', set -Dprofile.pid");
+    }
+
+    @SneakyThrows
+    private static String jcmd(String... arguments) {
+        var command = new ArrayList<String>(List.of(jcmd.toString()));
+        command.addAll(List.of(arguments));
+        var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IOException(String.join(" ", command) + " failed: " + output);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.netology.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.netology.app.AppLauncher;
+import ru.netology.data.EmbeddedDatabase;
+import ru.netology.data.SQLHelper;
+import ru.netology.data.StorageFootprint;
+import ru.netology.gate.BankGateStub;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public class BackendBenchmark {
+
+    private static final Path directory = Path.of(System.getProperty("bench.report", "build/backend-benchmark"));
+    private static final List<String> backends = List.of("mysql", "postgresql", "h2-mysql", "h2-postgresql");
+    private static final Pattern H2_MODE = Pattern.compile("MODE=(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final int queryIterations = Integer.parseInt(System.getProperty("bench.queryIterations", "1000"));
+
+    public static void main(String[] args) {
+        try (var gate = Boolean.getBoolean("gate.stub") ? BankGateStub.fromSystemProperties().start() : null;
+             var database = EmbeddedDatabase.startIfConfigured();
+             var app = Boolean.getBoolean("app.launch") ? new AppLauncher().start() : null) {
+            var result = new BackendBenchmark().run();
+            Reports.write(directory.resolve(result.getBackend() + ".json"), result);
+        }
+        writeComparison();
+    }
+
+    public BackendResult run() {
+        var load = new LoadGenerator().run();
+        return new BackendResult(backend(), load, benchmarkQueries(), StorageFootprint.measure());
+    }
+
+    private Map<String, LatencyRecorder.LatencyReport> benchmarkQueries() {
+        var payment = SQLHelper.getPaymentCardData();
+        var credit = SQLHelper.getCreditCardData();
+        if (payment == null || credit == null) {
+            throw new IllegalStateException("The load run left no payments or credits to query");
+        }
+        var queries = new LinkedHashMap<String, Supplier<Object>>();
+        queries.put("latestPayment", SQLHelper::getPaymentCardData);
+        queries.put("paymentByTransactionId", () -> SQLHelper.getPaymentCardData(payment.getTransaction_id()));
+        queries.put("latestCredit", SQLHelper::getCreditCardData);
+        queries.put("creditByBankId", () -> SQLHelper.getCreditCardData(credit.getBank_id()));
+        queries.put("latestOrder", SQLHelper::getTableOrderEntity);
+        queries.put("orderByPaymentId", () -> SQLHelper.getTableOrderEntityByPaymentId(payment.getTransaction_id()));
+        queries.put("orderByCreditId", () -> SQLHelper.getTableOrderEntityByCreditId(credit.getBank_id()));
+
+        var reports = new LinkedHashMap<String, LatencyRecorder.LatencyReport>();
+        queries.forEach((name, query) -> {
+            var recorder = new LatencyRecorder();
+            var started = System.nanoTime();
+            for (int i = 0; i < queryIterations; i++) {
+                var begin = System.nanoTime();
+                if (query.get() != null) {
+                    recorder.recordSuccess(System.nanoTime() - begin);
+                } else {
+                    recorder.recordError();
+                }
+            }
+            reports.put(name, recorder.report(System.nanoTime() - started));
+        });
+        return reports;
+    }
+
+    private static void writeComparison() {
+        var results = new LinkedHashMap<String, BackendResult>();
+        for (String backend : backends) {
+            var file = directory.resolve(backend + ".json");
+            if (Files.exists(file)) {
+                results.put(backend, Reports.read(file, BackendResult.class));
+            }
+        }
+        if (results.size() < 2) {
+            System.out.println("Only " + results.keySet() + " measured so far, rerun against another backend for the side-by-side report");
+            return;
+        }
+        var comparison = new TreeMap<String, Map<String, Double>>();
+        results.forEach((backend, result) -> {
+            result.getLoad().getEndpoints().forEach((endpoint, report) -> latency(comparison, backend, "api " + endpoint, report));
+            result.getQueries().forEach((query, report) -> latency(comparison, backend, "query " + query, report));
+            result.getStorage().forEach(table -> {
+                put(comparison, backend, "storage " + table.getTable() + " rows", table.getRows());
+                put(comparison, backend, "storage " + table.getTable() + " bytesPerRow", table.getBytesPerRow());
+            });
+        });
+        Reports.write(directory.resolve("comparison.json"), comparison);
+        System.out.printf("Side-by-side report written to %s%n", directory.resolve("comparison.json"));
+    }
+
+    private static void latency(Map<String, Map<String, Double>> comparison, String backend, String name,
+                                LatencyRecorder.LatencyReport report) {
+        put(comparison, backend, name + " throughputPerSecond", report.getThroughputPerSecond());
+        put(comparison, backend, name + " p50Millis", report.getP50Millis());
+        put(comparison, backend, name + " p99Millis", report.getP99Millis());
+        put(comparison, backend, name + " errorRate", report.getErrorRate());
+    }
+
+    private static void put(Map<String, Map<String, Double>> comparison, String backend, String metric, double value) {
+        comparison.computeIfAbsent(metric, key -> new LinkedHashMap<>()).put(backend, value);
+    }
+
+    private static String backend() {
+        var url = String.valueOf(System.getProperty("db.url"));
+        if (url.startsWith("jdbc:h2")) {
+            // each compatibility mode is its own result, otherwise one overwrites the other
+            var mode = H2_MODE.matcher(url);
+            return mode.find() ? "h2-" + mode.group(1).toLowerCase(Locale.ROOT) : "h2";
+        }
+        return url.startsWith("jdbc:postgresql") ? "postgresql" : url.startsWith("jdbc:mysql") ? "mysql" : "unknown";
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BackendResult {
+        private String backend;
+        private LoadGenerator.LoadReport load;
+        private Map<String, LatencyRecorder.LatencyReport> queries;
+        private List<StorageFootprint.TableSize> storage;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.netology.perf;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JfrSummary {
+
+    private static final int TOP = 20;
+
+    private final Map<String, Double> cpuSamples = new HashMap<>();
+    private final Map<String, Double> allocatedBytes = new HashMap<>();
+    private final Map<String, Double> monitorMillis = new HashMap<>();
+    private long collections;
+    private double gcPauseMillis;
+    private double longestGcPauseMillis;
+    private double monitorEnterMillis;
+    private double parkMillis;
+    private double jdbcSocketMillis;
+    private double otherSocketMillis;
+
+    private JfrSummary() {
+    }
+
+    @SneakyThrows
+    public static Report summarize(Path recording) {
+        var summary = new JfrSummary();
+        try (var file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.accept(file.readEvent());
+            }
+        }
+        return summary.report(recording);
+    }
+
+    private void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample":
+                cpuSamples.merge(topFrame(event), 1.0, Double::sum);
+                break;
+            case "jdk.ObjectAllocationSample":
+                allocatedBytes.merge(topFrame(event), (double) event.getLong("weight"), Double::sum);
+                break;
+            case "jdk.ObjectAllocationInNewTLAB":
+                allocatedBytes.merge(topFrame(event), (double) event.getLong("tlabSize"), Double::sum);
+                break;
+            case "jdk.ObjectAllocationOutsideTLAB":
+                allocatedBytes.merge(topFrame(event), (double) event.getLong("allocationSize"), Double::sum);
+                break;
+            case "jdk.GarbageCollection":
+                collections++;
+                gcPauseMillis += millis(event, "sumOfPauses");
+                longestGcPauseMillis = Math.max(longestGcPauseMillis, millis(event, "longestPause"));
+                break;
+            case "jdk.JavaMonitorEnter":
+                var waited = event.getDuration().toNanos() / 1e6;
+                monitorEnterMillis += waited;
+                monitorMillis.merge(event.getClass("monitorClass").getName(), waited, Double::sum);
+                break;
+            case "jdk.ThreadPark":
+                parkMillis += event.getDuration().toNanos() / 1e6;
+                break;
+            case "jdk.SocketRead":
+            case "jdk.SocketWrite":
+                var socketMillis = event.getDuration().toNanos() / 1e6;
+                if (isJdbc(event)) {
+                    jdbcSocketMillis += socketMillis;
+                } else {
+                    otherSocketMillis += socketMillis;
+                }
+                break;
+            default:
+        }
+    }
+
+    private Report report(Path recording) {
+        return new Report(
+                recording.toString(),
+                top(cpuSamples),
+                top(allocatedBytes),
+                collections,
+                gcPauseMillis,
+                longestGcPauseMillis,
+                monitorEnterMillis,
+                top(monitorMillis),
+                parkMillis,
+                jdbcSocketMillis,
+                otherSocketMillis);
+    }
+
+    private static double millis(RecordedEvent event, String field) {
+        return event.hasField(field) ? event.getDuration(field).toNanos() / 1e6 : event.getDuration().toNanos() / 1e6;
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        return frameName(stackTrace.getFrames().get(0));
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    private static boolean isJdbc(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            var type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.mysql.") || type.startsWith("org.postgresql.") || type.startsWith("org.h2.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Entry> top(Map<String, Double> values) {
+        var entries = new ArrayList<Entry>();
+        values.forEach((name, value) -> entries.add(new Entry(name, value)));
+        entries.sort(Comparator.comparingDouble(Entry::getValue).reversed());
+        return new ArrayList<>(entries.subList(0, Math.min(TOP, entries.size())));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String name;
+        private double value;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Report {
+        private String recording;
+        private List<Entry> topCpuMethods;
+        private List<Entry> allocationHotSpotsBytes;
+        private long gcCollections;
+        private double gcPauseMillis;
+        private double longestGcPauseMillis;
+        private double monitorEnterMillis;
+        private List<Entry> contendedMonitorsMillis;
+        private double threadParkMillis;
+        private double jdbcSocketMillis;
+        private double otherSocketMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.netology.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyRecorder {
+
+    private final ConcurrentHistogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    private final LongAdder errors = new LongAdder();
+
+    public void recordSuccess(long elapsedNanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), histogram.getHighestTrackableValue()));
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public long count() {
+        return histogram.getTotalCount();
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public LatencyReport report(long elapsedNanos) {
+        var successes = histogram.getTotalCount();
+        var failures = errors.sum();
+        var total = successes + failures;
+        var seconds = Math.max(elapsedNanos, 1) / 1e9;
+        return new LatencyReport(
+                total,
+                failures,
+                total == 0 ? 0 : (double) failures / total,
+                total / seconds,
+                histogram.getMean() / 1000.0,
+                percentileMillis(50),
+                percentileMillis(90),
+                percentileMillis(99),
+                percentileMillis(99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LatencyReport {
+        private long requests;
+        private long errors;
+        private double errorRate;
+        private double throughputPerSecond;
+        private double meanMillis;
+        private double p50Millis;
+        private double p90Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.netology.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import ru.netology.data.ApiClient;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.FastDataGenerator;
+import ru.netology.gate.CardDataset;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class LoadGenerator {
+
+    private final String baseUri = System.getProperty("load.baseUri", "http://localhost:8080");
+    private final int concurrency = Integer.parseInt(System.getProperty("load.concurrency", "64"));
+    private final Duration duration = Duration.ofSeconds(Long.parseLong(System.getProperty("load.duration", "30")));
+    private final double approvedShare = Double.parseDouble(System.getProperty("load.approvedShare", "0.5"));
+    private final double creditShare = Double.parseDouble(System.getProperty("load.creditShare", "0.5"));
+
+    private final ApiClient client = new ApiClient(baseUri);
+    private final FastDataGenerator generator = new FastDataGenerator(Long.getLong("load.seed", 42));
+    private final CardDataset dataset = System.getProperty("load.dataset") == null
+            ? null
+            : new CardDataset(Path.of(System.getProperty("load.dataset")));
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+    public LoadGenerator() {
+        recorders.put("/api/v1/pay", new LatencyRecorder());
+        recorders.put("/api/v1/credit", new LatencyRecorder());
+    }
+
+    public static void main(String[] args) {
+        var report = new LoadGenerator().run();
+        System.out.println(Reports.toJson(report));
+        Reports.write(Path.of(System.getProperty("load.report", "build/load/load-report.json")), report);
+    }
+
+    @SneakyThrows
+    public LoadReport run() {
+        var inFlight = new Semaphore(concurrency);
+        var started = System.nanoTime();
+        var deadline = started + duration.toNanos();
+        var index = 0L;
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            var random = ThreadLocalRandom.current();
+            var endpoint = random.nextDouble() < creditShare ? "/api/v1/credit" : "/api/v1/pay";
+            DataGenerator.CardInfo cardInfo;
+            if (dataset != null) {
+                cardInfo = generator.cardWithNumber(index++, dataset.numberAt(random.nextInt(dataset.size())));
+            } else if (random.nextDouble() < approvedShare) {
+                cardInfo = generator.approvedCard(index++);
+            } else {
+                cardInfo = generator.declinedCard(index++);
+            }
+            send(endpoint, cardInfo, inFlight);
+        }
+        inFlight.acquire(concurrency);
+        var elapsed = System.nanoTime() - started;
+
+        var endpoints = new LinkedHashMap<String, LatencyRecorder.LatencyReport>();
+        recorders.forEach((endpoint, recorder) -> endpoints.put(endpoint, recorder.report(elapsed)));
+        return new LoadReport(baseUri, concurrency, duration.getSeconds(), approvedShare, creditShare, endpoints);
+    }
+
+    private void send(String endpoint, DataGenerator.CardInfo cardInfo, Semaphore inFlight) {
+        var recorder = recorders.get(endpoint);
+        var sent = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = endpoint.equals("/api/v1/credit") ? client.creditAsync(cardInfo) : client.payAsync(cardInfo);
+        } catch (RuntimeException exception) {
+            // a request that cannot even be built (bad load.baseUri) would otherwise keep its permit forever
+            recorder.recordError();
+            inFlight.release();
+            throw exception;
+        }
+        future.whenComplete((response, error) -> {
+            if (error == null && response.statusCode() == 200) {
+                recorder.recordSuccess(System.nanoTime() - sent);
+            } else {
+                recorder.recordError();
+            }
+            inFlight.release();
+        });
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoadReport {
+        private String baseUri;
+        private int concurrency;
+        private long durationSeconds;
+        private double approvedShare;
+        private double creditShare;
+        private Map<String, LatencyRecorder.LatencyReport> endpoints;
+    }
+}
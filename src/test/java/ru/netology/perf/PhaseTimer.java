@@ -0,0 +1,60 @@
+package ru.netology.perf;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public class PhaseTimer {
+
+    public enum Phase {
+        DATA, HTTP, DB, UI
+    }
+
+    private static final boolean enabled = Boolean.getBoolean("timing.enabled");
+    private static final int PHASES = Phase.values().length;
+    private static final ThreadLocal<long[]> elapsed = ThreadLocal.withInitial(() -> new long[PHASES]);
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[PHASES]);
+
+    private PhaseTimer() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static <T> T time(Phase phase, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        var nesting = depth.get();
+        // nested calls of the same phase (a page constructor waiting inside a click) are counted once
+        if (nesting[phase.ordinal()]++ > 0) {
+            try {
+                return action.get();
+            } finally {
+                nesting[phase.ordinal()]--;
+            }
+        }
+        var started = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            nesting[phase.ordinal()]--;
+            elapsed.get()[phase.ordinal()] += System.nanoTime() - started;
+        }
+    }
+
+    public static void run(Phase phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static void reset() {
+        Arrays.fill(elapsed.get(), 0);
+    }
+
+    public static long[] snapshot() {
+        return elapsed.get().clone();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.netology.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.SneakyThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class Reports {
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private Reports() {
+    }
+
+    @SneakyThrows
+    public static String toJson(Object report) {
+        return mapper.writeValueAsString(report);
+    }
+
+    @SneakyThrows
+    public static <T> T read(Path path, Class<T> type) {
+        return mapper.readValue(path.toFile(), type);
+    }
+
+    @SneakyThrows
+    public static void write(Path path, Object report) {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        mapper.writeValue(path.toFile(), report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,223 @@
+package ru.netology.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.netology.data.ApiClient;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.FastDataGenerator;
+import ru.netology.data.SQLHelper;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.DoubleSummaryStatistics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WriteLagMeter {
+
+    private final double rate = Double.parseDouble(System.getProperty("lag.rate", "20"));
+    private final long durationSeconds = Long.getLong("lag.duration", 30L);
+    private final double approvedShare = Double.parseDouble(System.getProperty("lag.approvedShare", "0.5"));
+    private final double creditShare = Double.parseDouble(System.getProperty("lag.creditShare", "0.5"));
+    private final long pollIntervalMillis = Long.getLong("lag.pollInterval", 5L);
+    private final long timeoutMillis = Long.getLong("lag.timeout", 10_000L);
+
+    private final ApiClient client = ApiClient.shared();
+    private final FastDataGenerator generator = new FastDataGenerator(Long.getLong("lag.seed", 42L));
+    private final ScheduledExecutorService scheduler =
+            Executors.newScheduledThreadPool(Integer.getInteger("lag.pollers", 4));
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder apiErrors = new LongAdder();
+    private final LongAdder neverVisible = new LongAdder();
+    private final LongAdder lookupErrors = new LongAdder();
+    private final LatencyRecorder responseToVisible = new LatencyRecorder();
+    private final LatencyRecorder sendToVisible = new LatencyRecorder();
+    private final DoubleSummaryStatistics createdGap = new DoubleSummaryStatistics();
+
+    public static void main(String[] args) {
+        var report = new WriteLagMeter().run();
+        System.out.println(Reports.toJson(report));
+        Reports.write(Path.of(System.getProperty("lag.report",
+                "build/write-lag/" + report.getBackend() + ".json")), report);
+    }
+
+    public WriteLagReport run() {
+        var started = System.nanoTime();
+        var period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        var sender = scheduler.scheduleAtFixedRate(this::fire, 0, period, TimeUnit.NANOSECONDS);
+        sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        sender.cancel(false);
+        var drainDeadline = System.currentTimeMillis() + timeoutMillis + 5_000;
+        while (pending.get() > 0 && System.currentTimeMillis() < drainDeadline) {
+            sleep(50);
+        }
+        scheduler.shutdownNow();
+        var elapsed = System.nanoTime() - started;
+
+        var gap = new DoubleSummaryStatistics();
+        synchronized (createdGap) {
+            gap.combine(createdGap);
+        }
+        return new WriteLagReport(
+                backend(),
+                rate,
+                durationSeconds,
+                sent.get(),
+                apiErrors.sum(),
+                neverVisible.sum(),
+                lookupErrors.sum(),
+                responseToVisible.report(elapsed),
+                sendToVisible.report(elapsed),
+                gap.getCount() == 0 ? 0 : gap.getMin(),
+                gap.getCount() == 0 ? 0 : gap.getAverage(),
+                gap.getCount() == 0 ? 0 : gap.getMax());
+    }
+
+    private void fire() {
+        // an exception escaping here would silently cancel the fixed-rate schedule
+        try {
+            send();
+        } catch (RuntimeException exception) {
+            apiErrors.increment();
+        }
+    }
+
+    private void send() {
+        var index = sent.getAndIncrement();
+        var random = ThreadLocalRandom.current();
+        var credit = random.nextDouble() < creditShare;
+        var cardInfo = random.nextDouble() < approvedShare
+                ? generator.approvedCard(index)
+                : generator.declinedCard(index);
+        var sentNanos = System.nanoTime();
+        var sentMillis = System.currentTimeMillis();
+        pending.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = credit ? client.creditAsync(cardInfo) : client.payAsync(cardInfo);
+        } catch (RuntimeException exception) {
+            pending.decrementAndGet();
+            throw exception;
+        }
+        future.whenComplete((response, error) -> {
+            String id;
+            try {
+                id = error == null && response.statusCode() == 200 ? ApiClient.parse(response).getId() : null;
+            } catch (RuntimeException exception) {
+                id = null;
+            }
+            if (id == null) {
+                apiErrors.increment();
+                pending.decrementAndGet();
+                return;
+            }
+            poll(new Probe(id, credit, sentNanos, sentMillis, System.nanoTime()));
+        });
+    }
+
+    private void poll(Probe probe) {
+        scheduler.schedule(() -> check(probe), pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void check(Probe probe) {
+        String created;
+        try {
+            created = probe.credit
+                    ? createdOf(SQLHelper.getCreditCardData(probe.id))
+                    : createdOf(SQLHelper.getPaymentCardData(probe.id));
+        } catch (RuntimeException exception) {
+            lookupErrors.increment();
+            pending.decrementAndGet();
+            return;
+        }
+        var now = System.nanoTime();
+        if (created != null) {
+            responseToVisible.recordSuccess(now - probe.respondedNanos);
+            sendToVisible.recordSuccess(now - probe.sentNanos);
+            recordCreatedGap(created, probe.sentMillis);
+            pending.decrementAndGet();
+        } else if (TimeUnit.NANOSECONDS.toMillis(now - probe.respondedNanos) > timeoutMillis) {
+            neverVisible.increment();
+            pending.decrementAndGet();
+        } else {
+            poll(probe);
+        }
+    }
+
+    private void recordCreatedGap(String created, long sentMillis) {
+        try {
+            // assumes the database and the harness share a clock, as with the docker-compose setup
+            var gap = Timestamp.valueOf(created).getTime() - sentMillis;
+            synchronized (createdGap) {
+                createdGap.accept(gap);
+            }
+        } catch (IllegalArgumentException exception) {
+            // created is not a plain timestamp on this backend, the lag histograms are still valid
+        }
+    }
+
+    private static String createdOf(DataGenerator.PaymentCardData row) {
+        return row == null ? null : row.getCreated();
+    }
+
+    private static String createdOf(DataGenerator.CreditCardData row) {
+        return row == null ? null : row.getCreated();
+    }
+
+    private static String backend() {
+        var url = String.valueOf(System.getProperty("db.url"));
+        return url.startsWith("jdbc:postgresql") ? "postgresql" : url.startsWith("jdbc:mysql") ? "mysql" : "unknown";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Probe {
+        private final String id;
+        private final boolean credit;
+        private final long sentNanos;
+        private final long sentMillis;
+        private final long respondedNanos;
+
+        private Probe(String id, boolean credit, long sentNanos, long sentMillis, long respondedNanos) {
+            this.id = id;
+            this.credit = credit;
+            this.sentNanos = sentNanos;
+            this.sentMillis = sentMillis;
+            this.respondedNanos = respondedNanos;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WriteLagReport {
+        private String backend;
+        private double ratePerSecond;
+        private long durationSeconds;
+        private long sent;
+        private long apiErrors;
+        private long neverVisible;
+        private long lookupErrors;
+        private LatencyRecorder.LatencyReport responseToVisible;
+        private LatencyRecorder.LatencyReport sendToVisible;
+        private double minCreatedGapMillis;
+        private double avgCreatedGapMillis;
+        private double maxCreatedGapMillis;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.netology.tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.netology.data.FastDataGenerator;
+import ru.netology.gate.CardDataset;
+import ru.netology.gate.CardDatasetWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CardDatasetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Every written card must be found with its status")
+    void shouldFindEveryWrittenCard() {
+        var file = directory.resolve("cards.bin");
+        CardDatasetWriter.write(file, 10_000, 0.5, 42);
+        var dataset = new CardDataset(file);
+
+        assertEquals(10_000, dataset.size());
+        for (int i = 0; i < dataset.size(); i++) {
+            var number = dataset.numberAt(i);
+            assertTrue(FastDataGenerator.isLuhnValid(number), number);
+            assertEquals(dataset.statusAt(i), dataset.statusOf(number), number);
+        }
+    }
+
+    @Test
+    @DisplayName("Cards that were not written must not be found")
+    void shouldNotFindAbsentCards() {
+        var file = directory.resolve("cards.bin");
+        CardDatasetWriter.write(file, 1000, 0.5, 42);
+        var dataset = new CardDataset(file);
+
+        var first = Long.parseLong(dataset.numberAt(0).replace(" ", ""));
+        var last = Long.parseLong(dataset.numberAt(dataset.size() - 1).replace(" ", ""));
+        assertNull(dataset.statusOf(FastDataGenerator.formatPan(first - 1)));
+        assertNull(dataset.statusOf(FastDataGenerator.formatPan(last + 1)));
+        assertNull(dataset.statusOf("4444 4444 4444"));
+        assertNull(dataset.statusOf("4444 4444 4444 444a"));
+    }
+
+    @Test
+    @DisplayName("A file without the dataset header must be rejected")
+    void shouldRejectForeignFile() throws Exception {
+        var file = Files.write(directory.resolve("other.bin"), new byte[32]);
+        assertThrows(IllegalArgumentException.class, () -> new CardDataset(file));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.netology.tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.netology.fuzz.CardFuzzer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CardFuzzerTest {
+
+    private static final int CASES = 20_000;
+
+    private final CardFuzzer fuzzer = new CardFuzzer(42);
+
+    @Test
+    @DisplayName("A case must depend on seed and index only")
+    void shouldReplayCaseFromSeedAndIndex() {
+        var replay = new CardFuzzer(42);
+        // replayed in reverse, so nothing carried over from earlier calls can match by accident
+        for (long index = CASES - 1; index >= 0; index--) {
+            assertEquals(fuzzer.caseAt(index), replay.caseAt(index), "case " + index);
+        }
+        assertNotEquals(fuzzer.caseAt(7), new CardFuzzer(43).caseAt(7));
+    }
+
+    @Test
+    @DisplayName("Every category must be generated")
+    void shouldCoverEveryCategory() {
+        var categories = new HashSet<String>();
+        LongStream.range(0, CASES).forEach(index -> categories.add(fuzzer.caseAt(index).getCategory()));
+        assertTrue(categories.containsAll(List.of("validApproved", "validDeclined", "monthSingleDigit",
+                "monthMalformed", "expiryBoundary", "expired", "tooFarAhead", "yearMalformed", "holderLength",
+                "holderUnicode", "number", "cvcZero", "cvcMalformed")), categories.toString());
+    }
+
+    @Test
+    @DisplayName("Holder length cases must be accepted exactly for valid names of 2..21 characters")
+    void shouldLabelHolderLengthCases() {
+        var accepted = 0;
+        for (long index = 0; index < CASES; index++) {
+            var fuzzCase = fuzzer.caseAt(index);
+            if (!fuzzCase.getCategory().equals("holderLength")) {
+                continue;
+            }
+            var holder = fuzzCase.getCardInfo().getHolder();
+            var valid = holder.length() >= 2 && holder.length() <= 21;
+            assertEquals(valid ? CardFuzzer.Expectation.ACCEPTED : CardFuzzer.Expectation.REJECTED,
+                    fuzzCase.getExpectation(), holder);
+            if (valid) {
+                assertTrue(holder.matches("[A-Za-z][A-Za-z -]+"), holder);
+                assertEquals("APPROVED", fuzzCase.getExpectedStatus());
+                accepted++;
+            } else {
+                assertNull(fuzzCase.getExpectedStatus());
+            }
+        }
+        assertTrue(accepted > 0, "no valid holder lengths were generated");
+    }
+
+    @Test
+    @DisplayName("Valid cards must be accepted with the gate status and a valid expiry")
+    void shouldLabelValidCards() {
+        for (long index = 0; index < CASES; index++) {
+            var fuzzCase = fuzzer.caseAt(index);
+            var category = fuzzCase.getCategory();
+            if (!category.equals("validApproved") && !category.equals("validDeclined")) {
+                continue;
+            }
+            var card = fuzzCase.getCardInfo();
+            assertEquals(CardFuzzer.Expectation.ACCEPTED, fuzzCase.getExpectation());
+            assertEquals(category.equals("validApproved") ? "APPROVED" : "DECLINED", fuzzCase.getExpectedStatus());
+            assertEquals(category.equals("validApproved") ? "4444 4444 4444 4441" : "4444 4444 4444 4442",
+                    card.getNumber());
+            assertTrue(card.getMonth().matches("0[1-9]|1[0-2]"), card.getMonth());
+            assertTrue(card.getYear().matches("\\d{2}"), card.getYear());
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed and out-of-range cases must be expected to be rejected")
+    void shouldLabelInvalidCases() {
+        var rejected = Set.of("monthMalformed", "expiryBoundary", "expired", "tooFarAhead",
+                "yearMalformed", "holderUnicode", "number", "cvcMalformed");
+        for (long index = 0; index < CASES; index++) {
+            var fuzzCase = fuzzer.caseAt(index);
+            if (rejected.contains(fuzzCase.getCategory())) {
+                assertEquals(CardFuzzer.Expectation.REJECTED, fuzzCase.getExpectation(), fuzzCase.toString());
+                assertNull(fuzzCase.getExpectedStatus(), fuzzCase.toString());
+            }
+        }
+    }
+}
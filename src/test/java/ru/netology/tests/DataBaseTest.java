@@ -6,15 +6,29 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import ru.netology.app.AppLauncherExtension;
 import ru.netology.data.APIHelper;
 import ru.netology.data.DataGenerator;
 import ru.netology.data.SQLHelper;
+import ru.netology.extensions.DatabaseResetExtension;
+import ru.netology.extensions.EmbeddedDatabaseExtension;
+import ru.netology.extensions.PhaseTimingExtension;
+import ru.netology.gate.BankGateExtension;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+@ExtendWith(BankGateExtension.class)
+@ExtendWith(EmbeddedDatabaseExtension.class)
+@ExtendWith(AppLauncherExtension.class)
+@ExtendWith(DatabaseResetExtension.class)
+@ExtendWith(PhaseTimingExtension.class)
+@ResourceLock(value = SQLHelper.DATABASE, mode = ResourceAccessMode.READ)
 public class DataBaseTest {
     @BeforeAll
     static void setUpAll() {
@@ -30,8 +44,8 @@ public class DataBaseTest {
     @DisplayName("Should add the payment data to the database with APPROVAL via the API")
     void shouldSuccessTransactionWithApprovedPaymentCardViaAPI() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createPayment(cardInfo);
-        var paymentCardData = SQLHelper.getPaymentCardData();
+        var response = APIHelper.createPayment(cardInfo);
+        var paymentCardData = SQLHelper.getPaymentCardData(response.getId());
         assertEquals("APPROVED", paymentCardData.getStatus());
 
     }
@@ -40,8 +54,8 @@ public class DataBaseTest {
     @DisplayName("Should add the credit data to the database with APPROVAL via the API")
     void shouldSuccessTransactionWithApprovedCreditCardViaAPI() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createCredit(cardInfo);
-        var creditCardData = SQLHelper.getCreditCardData();
+        var response = APIHelper.createCredit(cardInfo);
+        var creditCardData = SQLHelper.getCreditCardData(response.getId());
         assertEquals("APPROVED", creditCardData.getStatus());
 
     }
@@ -50,8 +64,8 @@ public class DataBaseTest {
     @DisplayName("Should add the payment data to the database with a DECLINED via the API")
     void shouldSuccessTransactionWithDeclinedPaymentCardViaAPI() {
         var cardInfo = DataGenerator.generateDataWithDeclineCard();
-        APIHelper.createPayment(cardInfo);
-        var paymentCardData = SQLHelper.getPaymentCardData();
+        var response = APIHelper.createPayment(cardInfo);
+        var paymentCardData = SQLHelper.getPaymentCardData(response.getId());
         assertEquals("DECLINED", paymentCardData.getStatus());
 
     }
@@ -60,8 +74,8 @@ public class DataBaseTest {
     @DisplayName("Should add the credit data to the database with a DECLINED via the API")
     void shouldSuccessTransactionWithDeclinedCreditCardViaAPI() {
         var cardInfo = DataGenerator.generateDataWithDeclineCard();
-        APIHelper.createCredit(cardInfo);
-        var creditCardData = SQLHelper.getCreditCardData();
+        var response = APIHelper.createCredit(cardInfo);
+        var creditCardData = SQLHelper.getCreditCardData(response.getId());
         assertEquals("DECLINED", creditCardData.getStatus());
 
     }
@@ -70,10 +84,10 @@ public class DataBaseTest {
     @DisplayName("Should add the correct created date to the payment table with the APPROVED card")
     void shouldAddCorrectDateInPaymentTableWithApprovedCard() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createPayment(cardInfo);
+        var response = APIHelper.createPayment(cardInfo);
         Date dateNow = new Date();
         SimpleDateFormat formatForDateNow = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        var paymentCardData = SQLHelper.getPaymentCardData();
+        var paymentCardData = SQLHelper.getPaymentCardData(response.getId());
         String dateFromDB = paymentCardData.getCreated();
         var dateDB = dateFromDB.substring(0, dateFromDB.length() - 10);
         assertEquals(formatForDateNow.format(dateNow), dateDB);
@@ -83,10 +97,10 @@ public class DataBaseTest {
     @DisplayName("Should add the correct created date to the credit table with the APPROVED card")
     void shouldAddCorrectDateInCreditTableWithApprovedCard() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createCredit(cardInfo);
+        var response = APIHelper.createCredit(cardInfo);
         Date dateNow = new Date();
         SimpleDateFormat formatForDateNow = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        var creditCardData = SQLHelper.getCreditCardData();
+        var creditCardData = SQLHelper.getCreditCardData(response.getId());
         String dateFromDB = creditCardData.getCreated();
         var dateDB = dateFromDB.substring(0, dateFromDB.length() - 10);
         assertEquals(formatForDateNow.format(dateNow), dateDB);
@@ -96,10 +110,10 @@ public class DataBaseTest {
     @DisplayName("Should add the correct created date to the payment table with the DECLINED card")
     void shouldAddCorrectDateInPaymentTableWithDeclinedCard() {
         var cardInfo = DataGenerator.generateDataWithDeclineCard();
-        APIHelper.createPayment(cardInfo);
+        var response = APIHelper.createPayment(cardInfo);
         Date dateNow = new Date();
         SimpleDateFormat formatForDateNow = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        var paymentCardData = SQLHelper.getPaymentCardData();
+        var paymentCardData = SQLHelper.getPaymentCardData(response.getId());
         String dateFromDB = paymentCardData.getCreated();
         var dateDB = dateFromDB.substring(0, dateFromDB.length() - 10);
         assertEquals(formatForDateNow.format(dateNow), dateDB);
@@ -109,10 +123,10 @@ public class DataBaseTest {
     @DisplayName("Should add the correct created date to the credit table with the DECLINED card")
     void shouldAddCorrectDateInCreditTableWithDeclinedCard() {
         var cardInfo = DataGenerator.generateDataWithDeclineCard();
-        APIHelper.createCredit(cardInfo);
+        var response = APIHelper.createCredit(cardInfo);
         Date dateNow = new Date();
         SimpleDateFormat formatForDateNow = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        var creditCardData = SQLHelper.getCreditCardData();
+        var creditCardData = SQLHelper.getCreditCardData(response.getId());
         String dateFromDB = creditCardData.getCreated();
         var dateDB = dateFromDB.substring(0, dateFromDB.length() - 10);
         assertEquals(formatForDateNow.format(dateNow), dateDB);
@@ -122,9 +136,9 @@ public class DataBaseTest {
     @DisplayName("Should add the correct payment data in order_entity table")
     void shouldAddCorrectPaymentDataInOrderTable() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createPayment(cardInfo);
-        var cardDataFromPaymentTable = SQLHelper.getPaymentCardData();
-        var cardDataFromOrderTable = SQLHelper.getTableOrderEntity();
+        var response = APIHelper.createPayment(cardInfo);
+        var cardDataFromPaymentTable = SQLHelper.getPaymentCardData(response.getId());
+        var cardDataFromOrderTable = SQLHelper.getTableOrderEntityByPaymentId(response.getId());
         assertEquals(cardDataFromPaymentTable.getTransaction_id(), cardDataFromOrderTable.getPayment_id());
     }
 
@@ -132,9 +146,9 @@ public class DataBaseTest {
     @DisplayName("Should add the correct credit data in order_entity table")
     void shouldAddCorrectCreditDataInOrderTable() {
         var cardInfo = DataGenerator.generateDataWithApprovedCard();
-        APIHelper.createCredit(cardInfo);
-        var cardDataFromCreditTable = SQLHelper.getCreditCardData();
-        var cardDataFromOrderTable = SQLHelper.getTableOrderEntity();
+        var response = APIHelper.createCredit(cardInfo);
+        var cardDataFromCreditTable = SQLHelper.getCreditCardData(response.getId());
+        var cardDataFromOrderTable = SQLHelper.getTableOrderEntityByCreditId(response.getId());
         assertEquals(cardDataFromCreditTable.getBank_id(), cardDataFromOrderTable.getCredit_id());
     }
 }
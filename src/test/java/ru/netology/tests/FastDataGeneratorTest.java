@@ -0,0 +1,45 @@
+package ru.netology.tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.netology.data.FastDataGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FastDataGeneratorTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 42L, 123_456_789L, FastDataGenerator.ACCOUNT_RANGE - 1})
+    @DisplayName("A generated PAN must pass the Luhn check and survive formatting")
+    void shouldRoundTripLuhnPan(long account) {
+        var pan = FastDataGenerator.luhnPan(account);
+        var number = FastDataGenerator.formatPan(pan);
+        assertTrue(number.matches("4444 \\d{4} \\d{4} \\d{4}"), number);
+        assertTrue(FastDataGenerator.isLuhnValid(number), number);
+        assertEquals(pan, Long.parseLong(number.replace(" ", "")));
+    }
+
+    @Test
+    @DisplayName("A PAN with a changed digit must fail the Luhn check")
+    void shouldRejectChangedDigit() {
+        var number = FastDataGenerator.formatPan(FastDataGenerator.luhnPan(987_654_321L));
+        var last = number.charAt(number.length() - 1);
+        var changed = number.substring(0, number.length() - 1) + (char) ('0' + (last - '0' + 1) % 10);
+        assertFalse(FastDataGenerator.isLuhnValid(changed), changed);
+    }
+
+    @Test
+    @DisplayName("Cards must depend on seed and index only")
+    void shouldGenerateSameCardForSameSeedAndIndex() {
+        var first = new FastDataGenerator(7);
+        var second = new FastDataGenerator(7);
+        for (long index : new long[]{0, 1, 999_999}) {
+            assertEquals(first.randomCard(index), second.randomCard(index));
+        }
+        assertEquals(first.stream(1000).skip(500).findFirst().orElseThrow(), second.randomCard(500));
+    }
+}
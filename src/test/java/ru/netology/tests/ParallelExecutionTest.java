@@ -0,0 +1,27 @@
+package ru.netology.tests;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+@EnabledIfSystemProperty(named = "junit.jupiter.execution.parallel.enabled", matches = "true")
+public class ParallelExecutionTest {
+
+    // both methods have to be inside the barrier at the same time, a serial run times out in the first one
+    private static final CyclicBarrier bothRunning = new CyclicBarrier(2);
+
+    @Test
+    @DisplayName("The first method must overlap with the second one")
+    void shouldOverlapWithSecondMethod() throws Exception {
+        bothRunning.await(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("The second method must overlap with the first one")
+    void shouldOverlapWithFirstMethod() throws Exception {
+        bothRunning.await(30, TimeUnit.SECONDS);
+    }
+}
@@ -1,40 +1,42 @@
 package ru.netology.tests;
 
-import com.codeborne.selenide.Configuration;
 import com.codeborne.selenide.logevents.SelenideLogger;
 import io.qameta.allure.selenide.AllureSelenide;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import ru.netology.app.AppLauncherExtension;
+import ru.netology.data.ApiClient;
 import ru.netology.data.DataGenerator;
+import ru.netology.extensions.BrowserPoolExtension;
+import ru.netology.extensions.EmbeddedDatabaseExtension;
+import ru.netology.extensions.PhaseTimingExtension;
+import ru.netology.extensions.WaitTelemetryExtension;
+import ru.netology.gate.BankGateExtension;
 import ru.netology.pages.DashboardPage;
 
 
-import static com.codeborne.selenide.Selenide.closeWindow;
 import static com.codeborne.selenide.Selenide.open;
 
+@ExtendWith(BankGateExtension.class)
+@ExtendWith(EmbeddedDatabaseExtension.class)
+@ExtendWith(AppLauncherExtension.class)
+@ExtendWith(BrowserPoolExtension.class)
+@ExtendWith(WaitTelemetryExtension.class)
+@ExtendWith(PhaseTimingExtension.class)
 public class PaymentTest {
 
-    DashboardPage page = open("http://localhost:8080/", DashboardPage.class);
+    DashboardPage page = open(ApiClient.baseUri() + "/", DashboardPage.class);
 
     @BeforeAll
     static void setUpAll() {
         SelenideLogger.addListener("allure", new AllureSelenide());
     }
 
-    @BeforeEach
-    void setup() {
-        Configuration.holdBrowserOpen = true;
-    }
-
     @AfterAll
     static void tearDownAll() {
         SelenideLogger.removeListener("allure");
     }
 
-    @AfterEach
-    void tearDown() {
-        closeWindow();
-    }
-
     @Test
     @DisplayName("The payment card must be approved")
     void shouldSuccessTransactionWithPaymentCard() {
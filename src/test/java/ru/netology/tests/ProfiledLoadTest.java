@@ -0,0 +1,51 @@
+package ru.netology.tests;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import ru.netology.app.AppLauncherExtension;
+import ru.netology.extensions.EmbeddedDatabaseExtension;
+import ru.netology.gate.BankGateExtension;
+import ru.netology.perf.AppProfiler;
+import ru.netology.perf.JfrSummary;
+import ru.netology.perf.LoadGenerator;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Isolated
+@ExtendWith(BankGateExtension.class)
+@ExtendWith(EmbeddedDatabaseExtension.class)
+@ExtendWith(AppLauncherExtension.class)
+@EnabledIfSystemProperty(named = "load.profile", matches = "true")
+public class ProfiledLoadTest {
+
+    @Test
+    @DisplayName("Should record a JFR profile of the application under API load")
+    void shouldProfileApplicationUnderLoad() throws Exception {
+        var recording = Path.of("build/test-results/jfr/aqa-shop-" + System.currentTimeMillis() + ".jfr");
+        var profiler = AppProfiler.attach(recording);
+        profiler.start();
+        LoadGenerator.LoadReport load;
+        try {
+            load = new LoadGenerator().run();
+        } finally {
+            profiler.stop();
+        }
+        var summary = JfrSummary.summarize(recording);
+        Reports.write(Path.of(recording.toString().replace(".jfr", ".json")), summary);
+
+        Allure.addAttachment("Load report", "application/json", Reports.toJson(load), ".json");
+        Allure.addAttachment("JFR summary", "application/json", Reports.toJson(summary), ".json");
+        try (var stream = Files.newInputStream(recording)) {
+            Allure.addAttachment("JFR recording", "application/octet-stream", stream, ".jfr");
+        }
+        assertTrue(Files.size(recording) > 0);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.netology.tests;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.netology.data.QueryPlans;
+import ru.netology.data.SQLHelper;
+import ru.netology.extensions.EmbeddedDatabaseExtension;
+import ru.netology.perf.Reports;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@EnabledIfSystemProperty(named = "plan.verify", matches = "true")
+@ExtendWith(EmbeddedDatabaseExtension.class)
+@ResourceLock(value = SQLHelper.DATABASE, mode = ResourceAccessMode.READ)
+public class QueryPlanTest {
+
+    private static final long maxScanRows = Long.parseLong(System.getProperty("plan.maxScanRows", "10000"));
+    private static final List<QueryPlans.Plan> plans = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void requireSupportedBackend() {
+        // H2 prints its plans as annotated SQL, there is no access type or row estimate to check
+        assumeTrue(QueryPlans.isSupported(), "query plans are only checked on MySQL and PostgreSQL");
+    }
+
+    static Stream<Arguments> harnessQueries() {
+        return QueryPlans.harnessQueries().entrySet().stream()
+                .map(query -> Arguments.of(query.getKey(), query.getValue()));
+    }
+
+    @AfterAll
+    static void writeReport() {
+        if (!plans.isEmpty()) {
+            Reports.write(Path.of("build", "query-plans", plans.get(0).getBackend() + ".json"), plans);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("harnessQueries")
+    @DisplayName("Harness query should not fall back to a large full table scan")
+    void shouldNotScanWholeTable(String name, String sql) {
+        var plan = QueryPlans.explain(name, sql);
+        plans.add(plan);
+        Allure.addAttachment("Plan of " + name, "application/json", Reports.toJson(plan), ".json");
+
+        var fullScans = plan.getTables().stream()
+                .filter(table -> table.isFullScan() && table.getRowsExamined() > maxScanRows)
+                .map(table -> table.getTable() + " (" + table.getAccessType() + ", " + table.getRowsExamined() + " rows)")
+                .collect(Collectors.joining(", "));
+        assertTrue(fullScans.isEmpty(), name + " scans more than " + maxScanRows + " rows: " + fullScans);
+    }
+}
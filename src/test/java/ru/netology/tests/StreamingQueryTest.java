@@ -0,0 +1,101 @@
+package ru.netology.tests;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import ru.netology.data.DataGenerator;
+import ru.netology.data.SQLHelper;
+import ru.netology.extensions.EmbeddedDatabaseExtension;
+
+import java.sql.DriverManager;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@EnabledIfSystemProperty(named = "db.embedded", matches = ".+")
+@ExtendWith(EmbeddedDatabaseExtension.class)
+@ResourceLock(value = SQLHelper.DATABASE, mode = ResourceAccessMode.READ_WRITE)
+public class StreamingQueryTest {
+
+    private static final String MARKER = "stream-test-";
+    private static final int PAYMENTS = 50;
+
+    @BeforeAll
+    @SneakyThrows
+    static void insertPayments() {
+        // without a launched application the embedded database has no schema yet
+        try (var conn = DriverManager.getConnection(System.getProperty("db.url"),
+                System.getProperty("db.username"), System.getProperty("db.password"));
+             var statement = conn.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS payment_entity (id VARCHAR(255) PRIMARY KEY, "
+                    + "amount INT, created TIMESTAMP, status VARCHAR(255), transaction_id VARCHAR(255))");
+            for (int i = 0; i < PAYMENTS; i++) {
+                statement.execute("INSERT INTO payment_entity (id, amount, created, status, transaction_id) "
+                        + "VALUES ('" + MARKER + i + "', " + i + ", CURRENT_TIMESTAMP, 'APPROVED', "
+                        + "'transaction-" + MARKER + i + "')");
+            }
+        }
+    }
+
+    @AfterAll
+    @SneakyThrows
+    static void deletePayments() {
+        try (var conn = DriverManager.getConnection(System.getProperty("db.url"),
+                System.getProperty("db.username"), System.getProperty("db.password"));
+             var statement = conn.createStatement()) {
+            statement.execute("DELETE FROM payment_entity WHERE id LIKE '" + MARKER + "%'");
+        }
+    }
+
+    @Test
+    @DisplayName("Streamed rows must be mapped by column and the connection must return to the pool")
+    void shouldStreamRowsAndReleaseConnection() {
+        var activeBefore = SQLHelper.getPoolMetrics().getActive();
+        long sum;
+        try (var rows = SQLHelper.stream("SELECT x AS n, x * 2 AS doubled FROM SYSTEM_RANGE(1, 10000) WHERE x > ?",
+                rs -> {
+                    var n = rs.findColumn("n");
+                    var doubled = rs.findColumn("doubled");
+                    return row -> {
+                        assertEquals(row.getLong(n) * 2, row.getLong(doubled));
+                        return row.getLong(n);
+                    };
+                }, 0)) {
+            assertEquals(activeBefore + 1, SQLHelper.getPoolMetrics().getActive());
+            sum = rows.mapToLong(Long::longValue).sum();
+        }
+        assertEquals(10_000L * 10_001 / 2, sum);
+        assertEquals(activeBefore, SQLHelper.getPoolMetrics().getActive());
+    }
+
+    @Test
+    @DisplayName("Streamed payments must carry every column of their row")
+    void shouldMapPaymentColumns() {
+        var activeBefore = SQLHelper.getPoolMetrics().getActive();
+        try (var rows = SQLHelper.streamPayments()) {
+            var payments = rows.filter(payment -> payment.getId().startsWith(MARKER))
+                    .collect(Collectors.toMap(DataGenerator.PaymentCardData::getId, payment -> payment));
+            assertEquals(PAYMENTS, payments.size());
+            var payment = payments.get(MARKER + 7);
+            assertEquals("7", payment.getAmount());
+            assertEquals("APPROVED", payment.getStatus());
+            assertEquals("transaction-" + MARKER + 7, payment.getTransaction_id());
+        }
+        assertEquals(activeBefore, SQLHelper.getPoolMetrics().getActive());
+    }
+
+    @Test
+    @DisplayName("A failing query must not keep its connection")
+    void shouldReleaseConnectionWhenQueryFails() {
+        var activeBefore = SQLHelper.getPoolMetrics().getActive();
+        assertThrows(Exception.class, () -> SQLHelper.stream("SELECT * FROM no_such_table", rs -> row -> row));
+        assertEquals(activeBefore, SQLHelper.getPoolMetrics().getActive());
+    }
+}